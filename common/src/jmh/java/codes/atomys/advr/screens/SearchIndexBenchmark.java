@@ -0,0 +1,141 @@
+package codes.atomys.advr.screens;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the queries of the {@link SearchIndex} on a large modpack: 5000
+ * advancements with 10 criteria each, 50k criteria in total.
+ *
+ * <p>
+ * The names are made of random syllables, so the index holds tens of
+ * thousands of distinct words sharing many trigrams, which is the worst case
+ * for the typo-tolerant matching. The queries use the same limit as the
+ * search box of the advancement screen.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+  private static final int ADVANCEMENTS = 5_000;
+  private static final int CRITERIA_PER_ADVANCEMENT = 10;
+  private static final int LIMIT = 8;
+  // CHECKSTYLE:OFF
+  private static final String[] SYLLABLES = {
+    "ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ze", "dra", "gon", "bel", "quar", "ith", "stel", "mor", "pyx",
+    "ul", "ven", "tor", "ash", "fen", "gri", "hol"
+  };
+  // CHECKSTYLE:ON
+
+  private SearchIndex<Integer> index;
+  private String exactQuery;
+  private String prefixQuery;
+  private String typoQuery;
+  private String twoWordsQuery;
+
+  /**
+   * Builds the index and picks the queries from its words.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    final Random random = new Random(42L);
+    this.index = new SearchIndex<>();
+    String titleWord = null;
+    String criterionWord = null;
+    for (int i = 0; i < ADVANCEMENTS; i++) {
+      final String title = this.words(random, 2 + random.nextInt(2));
+      final List<String> criteria = Lists.newArrayListWithCapacity(CRITERIA_PER_ADVANCEMENT);
+      for (int j = 0; j < CRITERIA_PER_ADVANCEMENT; j++) {
+        criteria.add(this.words(random, 2));
+      }
+      this.index.add(i, title, this.words(random, 6), criteria);
+      if (i == ADVANCEMENTS / 2) {
+        titleWord = SearchIndex.tokenize(title).get(0);
+        criterionWord = SearchIndex.tokenize(criteria.get(0)).get(1);
+      }
+    }
+
+    this.exactQuery = titleWord;
+    this.prefixQuery = titleWord.substring(0, 3);
+    this.typoQuery = this.typo(titleWord);
+    this.twoWordsQuery = this.typo(titleWord) + " " + criterionWord;
+  }
+
+  /**
+   * Searches a word of a title, as typed in full.
+   *
+   * @return the results, consumed by the benchmark
+   */
+  @Benchmark
+  public List<Integer> exactWord() {
+    return this.index.search(this.exactQuery, LIMIT);
+  }
+
+  /**
+   * Searches the first letters of a word, as while typing.
+   *
+   * @return the results, consumed by the benchmark
+   */
+  @Benchmark
+  public List<Integer> prefix() {
+    return this.index.search(this.prefixQuery, LIMIT);
+  }
+
+  /**
+   * Searches a word of a title with a wrong letter.
+   *
+   * @return the results, consumed by the benchmark
+   */
+  @Benchmark
+  public List<Integer> typo() {
+    return this.index.search(this.typoQuery, LIMIT);
+  }
+
+  /**
+   * Searches a misspelled title word and a criterion word together.
+   *
+   * @return the results, consumed by the benchmark
+   */
+  @Benchmark
+  public List<Integer> typoAndCriterion() {
+    return this.index.search(this.twoWordsQuery, LIMIT);
+  }
+
+  private String words(final Random random, final int count) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        builder.append(' ');
+      }
+      final int syllables = 2 + random.nextInt(3);
+      for (int j = 0; j < syllables; j++) {
+        builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+      }
+    }
+    return builder.toString();
+  }
+
+  // Replaces the letter in the middle of the word
+  private String typo(final String word) {
+    final int middle = word.length() / 2;
+    final char replacement = word.charAt(middle) == 'x' ? 'y' : 'x';
+    return word.substring(0, middle) + replacement + word.substring(middle + 1);
+  }
+}
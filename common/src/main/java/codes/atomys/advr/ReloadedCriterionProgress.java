@@ -1,6 +1,8 @@
 package codes.atomys.advr;
 
 import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.utils.MissingTranslations;
+import codes.atomys.advr.utils.TranslationIndex;
 import codes.atomys.advr.utils.Utils;
 import com.google.common.collect.Lists;
 import java.util.List;
@@ -8,9 +10,11 @@ import java.util.stream.Collectors;
 import net.minecraft.advancements.Advancement;
 import net.minecraft.advancements.AdvancementNode;
 import net.minecraft.advancements.AdvancementProgress;
+import net.minecraft.locale.Language;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.CommonColors;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents the progress of a specific criterion within an advancement.
@@ -19,9 +23,22 @@ import net.minecraft.util.CommonColors;
  * and to get the title and color of the criterion progress.
  */
 public class ReloadedCriterionProgress {
+  // Incremented when the resolved names become outdated, see #invalidateNames
+  private static int nameGeneration;
+  private static long nameHits;
+  private static long nameMisses;
+
   private final AdvancementNode advancementNode;
-  private final AdvancementProgress progress;
+  private final String criterionName;
   private final ResourceLocation criterion;
+  private AdvancementProgress progress;
+  @Nullable
+  private String translationKey;
+  @Nullable
+  private Component humanName;
+  @Nullable
+  private Configuration.TranslationMode humanNameMode;
+  private int humanNameGeneration;
 
   private boolean obtained;
 
@@ -37,11 +54,25 @@ public class ReloadedCriterionProgress {
       final String criterionName) {
     this.advancementNode = advancementNode;
     this.progress = progress;
+    this.criterionName = criterionName;
     this.criterion = ResourceLocation.parse(criterionName);
 
     this.obtained = progress.getCriterion(criterionName).isDone();
   }
 
+  /**
+   * Updates this criterion from a newer progress of the same advancement.
+   *
+   * @param progress the new progress of the advancement
+   * @return true if the criterion was obtained or lost, false otherwise
+   */
+  public boolean update(final AdvancementProgress progress) {
+    this.progress = progress;
+    final boolean wasObtained = this.obtained;
+    this.obtained = progress.getCriterion(this.criterionName).isDone();
+    return wasObtained != this.obtained;
+  }
+
   /**
    * Gets the advancement node this criterion belongs to.
    *
@@ -109,13 +140,52 @@ public class ReloadedCriterionProgress {
 
   /**
    * Gets the human-readable name of the criterion.
+   * <p>
+   * The name is resolved once, then reused until the translation mode changes
+   * or the names are invalidated, see {@link #invalidateNames()}.
+   * </p>
    *
    * @return the human-readable name of the criterion
    */
   public Component getHumanCriterionName() {
+    if (this.humanName != null && this.humanNameGeneration == nameGeneration
+        && this.humanNameMode == Configuration.get().getCriteriasTranslationMode()) {
+      nameHits++;
+      return this.humanName;
+    }
+
+    nameMisses++;
+    this.humanName = this.resolveHumanCriterionName();
+    this.humanNameMode = Configuration.get().getCriteriasTranslationMode();
+    this.humanNameGeneration = nameGeneration;
+    return this.humanName;
+  }
+
+  /**
+   * Marks the resolved names of every criterion as outdated, they are resolved
+   * again on their next use. Called when the translations are reloaded.
+   */
+  public static void invalidateNames() {
+    nameGeneration++;
+    nameHits = 0;
+    nameMisses = 0;
+  }
+
+  /**
+   * Gets the share of the names served from the cache since the last
+   * invalidation.
+   *
+   * @return the hit rate of the name cache, between 0 and 1
+   */
+  public static double getNameCacheHitRate() {
+    final long lookups = nameHits + nameMisses;
+    return lookups == 0 ? 0.0D : (double) nameHits / lookups;
+  }
+
+  private Component resolveHumanCriterionName() {
     final String translationKey = this.getTranslationKey();
 
-    switch (Configuration.criteriasTranslationMode) {
+    switch (Configuration.get().getCriteriasTranslationMode()) {
       case NONE:
         // No translation
         break;
@@ -123,8 +193,11 @@ public class ReloadedCriterionProgress {
         // Only translate when compatible with mod
         return Component.translatableWithFallback(translationKey, this.criterion.getPath());
       case TRY_TO_TRANSLATE:
-        // Try to translate all the time (try to translate as possible) but
-        // can be a performance hit
+        // Try to translate all the time (try to translate as possible), the
+        // criterion is looked up in the index of the loaded translation keys
+        if (Language.getInstance().has(translationKey)) {
+          return Component.translatable(translationKey);
+        }
         return Component.translatableWithFallback(translationKey, this.retrieveTranslationOnGame().getString());
       default:
         break;
@@ -139,12 +212,16 @@ public class ReloadedCriterionProgress {
    * "advancements.{root-advancement-id}.{advancement-id}.criteria.{criterion-name>}"
    * <p>
    * This method will return an empty string if the translation key cannot be
-   * retrieved.
+   * retrieved. The key is built on the first call only.
    * </p>
    *
    * @return the translation key for the criterion name
    */
   public String getTranslationKey() {
+    if (this.translationKey != null) {
+      return this.translationKey;
+    }
+
     final String criterionName = this.criterion.getPath();
 
     final List<String> parts = List.of(
@@ -154,9 +231,10 @@ public class ReloadedCriterionProgress {
         "criteria",
         criterionName);
 
-    return parts.stream()
+    this.translationKey = parts.stream()
         .filter(part -> part != null && !part.isEmpty()) // Remove null or empty elements
         .collect(Collectors.joining("."));
+    return this.translationKey;
   }
 
   /**
@@ -207,6 +285,9 @@ public class ReloadedCriterionProgress {
   private Component retrieveTranslationOnGame() {
     final String criterionNamespace = this.criterion.getNamespace();
     final String criteria = this.criterion.getPath();
+    if (MissingTranslations.isMissing(this.getTranslationKey())) {
+      return Component.literal(criteria);
+    }
 
     // Try to translate the name by finding the item in the namespace and the
     // default namespace (if not the same as the namespace).
@@ -215,27 +296,14 @@ public class ReloadedCriterionProgress {
       namespaces.add("minecraft");
     }
 
-    // CHECKSTYLE:OFF
-    final String[] keyTypes = { "biome", "block", "color", "container", "effect", "enchantment", "entity", "instrument",
-        "item", "jukebox_song", "painting", "stat" };
-    // CHECKSTYLE:ON
-
     for (final String namespace : namespaces) {
-      for (final String keyType : keyTypes) {
-        // Special case for paintings since they have a different translation key
-        final String translationKey = keyType + "." + namespace + "." + criteria
-            + (keyType == "painting" ? ".title" : "");
-        final Component translation = Component.translatable(translationKey);
-        if (!translation.getString().equals(translationKey)) {
-          translation.getStyle().withItalic(true).applyTo(translation.getStyle());
-          return translation;
-        }
+      final String translationKey = TranslationIndex.find(namespace, criteria);
+      if (translationKey != null) {
+        return Component.translatable(translationKey);
       }
     }
 
-    Utils.LOGGER.warn(
-        "Unable to translate {} to a more meaningful name, adding as is, performance may be degraded. You can add your own translation for this criterion by adding the translation key: `{}`.",
-        criteria, this.getTranslationKey());
+    MissingTranslations.report(this.getTranslationKey(), criteria);
     return Component.literal(criteria);
   }
 }
@@ -1,7 +1,7 @@
 package codes.atomys.advr;
 
+import codes.atomys.advr.config.ConfigSnapshot;
 import codes.atomys.advr.config.Configuration;
-import java.lang.reflect.Field;
 
 /**
  * Enum representing the placement of tabs in the GUI.
@@ -19,8 +19,8 @@ import java.lang.reflect.Field;
  * </p>
  *
  * <p>
- * The tab limit for each placement is dynamically determined by reading the
- * configuration values from the Configuration class.
+ * The tab limit for each placement is read from the current snapshot of the
+ * Configuration class.
  * </p>
  *
  * <p>
@@ -69,34 +69,29 @@ public enum TabPlacement {
    * @return The limit of tabs on this side.
    */
   public int getTabLimit() {
-    return this.getDynamicLimit();
+    return this.getTabLimit(Configuration.get());
   }
 
   /**
-   * Dynamically get the widget limit for this placement from the Configuration
-   * class.
+   * Get the limit of tabs on this placement from the given configuration
+   * snapshot.
    *
    * <p>
-   * The widget limit is the number of tabs that can be placed on this side of the
-   * screen. The limit is determined by reading the value of a method in the
-   * Configuration class.
+   * The widget limit is the number of tabs that can be placed on this side of
+   * the screen.
    * </p>
    *
-   * <p>
-   * The method name is determined by appending "WidgetLimit" to the lowercase
-   * name of the placement.
-   * </p>
-   *
-   * @return The widget limit for this placement.
+   * @param snapshot the configuration snapshot to read the limit from.
+   * @return The limit of tabs on this side.
    */
-  private int getDynamicLimit() {
-    final String fieldName = name().toLowerCase() + "WidgetLimit";
-    try {
-      final Field field = Configuration.class.getField(fieldName);
-      return (int) field.get(Configuration.class);
-    } catch (final Exception e) {
-      e.printStackTrace();
-      return 14;
+  public int getTabLimit(final ConfigSnapshot snapshot) {
+    switch (this.ordinal()) {
+      case 0: // ABOVE
+        return snapshot.getAboveWidgetLimit();
+      case 1: // BELOW
+        return snapshot.getBelowWidgetLimit();
+      default:
+        throw new UnsupportedOperationException("Don't know what this tab type is!" + String.valueOf(this));
     }
   }
 
@@ -0,0 +1,403 @@
+package codes.atomys.advr.config;
+
+/**
+ * An immutable snapshot of the configuration of the mod.
+ *
+ * <p>
+ * The current snapshot is read with {@link Configuration#get()}. A change of
+ * the configuration publishes a new snapshot, with a greater version, built
+ * from a {@link Builder}, see {@link Configuration#publish(Builder)}.
+ * </p>
+ */
+public final class ConfigSnapshot {
+  private final int version;
+
+  // appearance section
+  private final boolean displaySidebar; // added in v0.3
+  private final boolean displayDescription; // added in v0.2
+  private final boolean criteriasAlphabeticOrder; // added in v0.3, true by default in v0.5
+  private final boolean tabsAlphabeticOrder; // added in v0.6
+  private final Configuration.BackgroundStyle backgroundStyle; // added in v0.4
+  private final Configuration.TranslationMode criteriasTranslationMode; // added in v0.6
+
+  // Advanced customization
+  private final int headerHeight; // added in v0.2
+  private final int footerHeight; // added in v0.2
+  private final int criteriasWidth; // added in v0.2
+  private final int aboveWidgetLimit; // added in v0.2
+  private final int belowWidgetLimit; // added in v0.2
+  private final boolean renderCache;
+  private final int renderCacheBudget;
+
+  private ConfigSnapshot(final Builder builder, final int version) {
+    this.version = version;
+    this.displaySidebar = builder.displaySidebar;
+    this.displayDescription = builder.displayDescription;
+    this.criteriasAlphabeticOrder = builder.criteriasAlphabeticOrder;
+    this.tabsAlphabeticOrder = builder.tabsAlphabeticOrder;
+    this.backgroundStyle = builder.backgroundStyle;
+    this.criteriasTranslationMode = builder.criteriasTranslationMode;
+    this.headerHeight = builder.headerHeight;
+    this.footerHeight = builder.footerHeight;
+    this.criteriasWidth = builder.criteriasWidth;
+    this.aboveWidgetLimit = builder.aboveWidgetLimit;
+    this.belowWidgetLimit = builder.belowWidgetLimit;
+    this.renderCache = builder.renderCache;
+    this.renderCacheBudget = builder.renderCacheBudget;
+  }
+
+  /**
+   * Creates a builder with the default values of every option.
+   *
+   * @return a new builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Creates a builder with the values of this snapshot.
+   *
+   * @return a new builder
+   */
+  public Builder toBuilder() {
+    return new Builder()
+        .displaySidebar(this.displaySidebar)
+        .displayDescription(this.displayDescription)
+        .criteriasAlphabeticOrder(this.criteriasAlphabeticOrder)
+        .tabsAlphabeticOrder(this.tabsAlphabeticOrder)
+        .backgroundStyle(this.backgroundStyle)
+        .criteriasTranslationMode(this.criteriasTranslationMode)
+        .headerHeight(this.headerHeight)
+        .footerHeight(this.footerHeight)
+        .criteriasWidth(this.criteriasWidth)
+        .aboveWidgetLimit(this.aboveWidgetLimit)
+        .belowWidgetLimit(this.belowWidgetLimit)
+        .renderCache(this.renderCache)
+        .renderCacheBudget(this.renderCacheBudget);
+  }
+
+  /**
+   * Gets the version of this snapshot, incremented on each published change.
+   *
+   * @return the version of this snapshot
+   */
+  public int getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Whether the criteria sidebar is displayed when a widget is selected.
+   *
+   * @return true if the sidebar is displayed
+   */
+  public boolean isDisplaySidebar() {
+    return this.displaySidebar;
+  }
+
+  /**
+   * Whether the description of the advancement is displayed in the sidebar.
+   *
+   * @return true if the description is displayed
+   */
+  public boolean isDisplayDescription() {
+    return this.displayDescription;
+  }
+
+  /**
+   * Whether the criteria are sorted alphabetically in the sidebar.
+   *
+   * @return true if the criteria are sorted alphabetically
+   */
+  public boolean isCriteriasAlphabeticOrder() {
+    return this.criteriasAlphabeticOrder;
+  }
+
+  /**
+   * Whether the tabs are sorted alphabetically by title.
+   *
+   * @return true if the tabs are sorted alphabetically
+   */
+  public boolean isTabsAlphabeticOrder() {
+    return this.tabsAlphabeticOrder;
+  }
+
+  /**
+   * Gets the style of the background of the screen.
+   *
+   * @return the background style
+   */
+  public Configuration.BackgroundStyle getBackgroundStyle() {
+    return this.backgroundStyle;
+  }
+
+  /**
+   * Gets how the names of the criteria are translated.
+   *
+   * @return the translation mode of the criteria
+   */
+  public Configuration.TranslationMode getCriteriasTranslationMode() {
+    return this.criteriasTranslationMode;
+  }
+
+  /**
+   * Gets the height of the header of the screen.
+   *
+   * @return the header height
+   */
+  public int getHeaderHeight() {
+    return this.headerHeight;
+  }
+
+  /**
+   * Gets the height of the footer of the screen.
+   *
+   * @return the footer height
+   */
+  public int getFooterHeight() {
+    return this.footerHeight;
+  }
+
+  /**
+   * Gets the width of the criteria sidebar.
+   *
+   * @return the sidebar width
+   */
+  public int getCriteriasWidth() {
+    return this.criteriasWidth;
+  }
+
+  /**
+   * Gets the number of tabs placed above the tree.
+   *
+   * @return the tab limit above the tree
+   */
+  public int getAboveWidgetLimit() {
+    return this.aboveWidgetLimit;
+  }
+
+  /**
+   * Gets the number of tabs placed below the tree.
+   *
+   * @return the tab limit below the tree
+   */
+  public int getBelowWidgetLimit() {
+    return this.belowWidgetLimit;
+  }
+
+  /**
+   * Whether the layers of the screen are cached between frames.
+   *
+   * @return true if the render cache is enabled
+   */
+  public boolean isRenderCache() {
+    return this.renderCache;
+  }
+
+  /**
+   * Gets the memory budget of the tile cache of a tab, in megabytes.
+   *
+   * @return the render cache budget
+   */
+  public int getRenderCacheBudget() {
+    return this.renderCacheBudget;
+  }
+
+  /**
+   * Whether the given snapshot has the same values as this one, regardless of
+   * their versions.
+   *
+   * @param other the snapshot to compare with
+   * @return true if every option has the same value
+   */
+  public boolean hasSameValues(final ConfigSnapshot other) {
+    return this.displaySidebar == other.displaySidebar
+        && this.displayDescription == other.displayDescription
+        && this.criteriasAlphabeticOrder == other.criteriasAlphabeticOrder
+        && this.tabsAlphabeticOrder == other.tabsAlphabeticOrder
+        && this.backgroundStyle == other.backgroundStyle
+        && this.criteriasTranslationMode == other.criteriasTranslationMode
+        && this.headerHeight == other.headerHeight
+        && this.footerHeight == other.footerHeight
+        && this.criteriasWidth == other.criteriasWidth
+        && this.aboveWidgetLimit == other.aboveWidgetLimit
+        && this.belowWidgetLimit == other.belowWidgetLimit
+        && this.renderCache == other.renderCache
+        && this.renderCacheBudget == other.renderCacheBudget;
+  }
+
+  /**
+   * A builder of {@link ConfigSnapshot}, starting from the default values.
+   */
+  public static final class Builder {
+    private boolean displaySidebar = true;
+    private boolean displayDescription = true;
+    private boolean criteriasAlphabeticOrder = true;
+    private boolean tabsAlphabeticOrder = true;
+    private Configuration.BackgroundStyle backgroundStyle = Configuration.BackgroundStyle.TRANSPARENT;
+    private Configuration.TranslationMode criteriasTranslationMode = Configuration.TranslationMode.ONLY_COMPATIBLE;
+    private int headerHeight = 48;
+    private int footerHeight = 32;
+    private int criteriasWidth = 142;
+    private int aboveWidgetLimit = 14;
+    private int belowWidgetLimit = 14;
+    private boolean renderCache = false;
+    private int renderCacheBudget = 64;
+
+    private Builder() {
+    }
+
+    /**
+     * Sets whether the criteria sidebar is displayed.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder displaySidebar(final boolean value) {
+      this.displaySidebar = value;
+      return this;
+    }
+
+    /**
+     * Sets whether the description is displayed in the sidebar.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder displayDescription(final boolean value) {
+      this.displayDescription = value;
+      return this;
+    }
+
+    /**
+     * Sets whether the criteria are sorted alphabetically.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder criteriasAlphabeticOrder(final boolean value) {
+      this.criteriasAlphabeticOrder = value;
+      return this;
+    }
+
+    /**
+     * Sets whether the tabs are sorted alphabetically.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder tabsAlphabeticOrder(final boolean value) {
+      this.tabsAlphabeticOrder = value;
+      return this;
+    }
+
+    /**
+     * Sets the style of the background.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder backgroundStyle(final Configuration.BackgroundStyle value) {
+      this.backgroundStyle = value;
+      return this;
+    }
+
+    /**
+     * Sets how the names of the criteria are translated.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder criteriasTranslationMode(final Configuration.TranslationMode value) {
+      this.criteriasTranslationMode = value;
+      return this;
+    }
+
+    /**
+     * Sets the height of the header.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder headerHeight(final int value) {
+      this.headerHeight = value;
+      return this;
+    }
+
+    /**
+     * Sets the height of the footer.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder footerHeight(final int value) {
+      this.footerHeight = value;
+      return this;
+    }
+
+    /**
+     * Sets the width of the criteria sidebar.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder criteriasWidth(final int value) {
+      this.criteriasWidth = value;
+      return this;
+    }
+
+    /**
+     * Sets the number of tabs placed above the tree.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder aboveWidgetLimit(final int value) {
+      this.aboveWidgetLimit = value;
+      return this;
+    }
+
+    /**
+     * Sets the number of tabs placed below the tree.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder belowWidgetLimit(final int value) {
+      this.belowWidgetLimit = value;
+      return this;
+    }
+
+    /**
+     * Sets whether the layers of the screen are cached between frames.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder renderCache(final boolean value) {
+      this.renderCache = value;
+      return this;
+    }
+
+    /**
+     * Sets the memory budget of the tile cache of a tab, in megabytes.
+     *
+     * @param value the new value
+     * @return this builder
+     */
+    public Builder renderCacheBudget(final int value) {
+      this.renderCacheBudget = value;
+      return this;
+    }
+
+    /**
+     * Builds a snapshot with the values of this builder and the given version.
+     *
+     * @param version the version of the snapshot
+     * @return a new snapshot
+     */
+    ConfigSnapshot build(final int version) {
+      return new ConfigSnapshot(this, version);
+    }
+  }
+}
@@ -1,9 +1,21 @@
 package codes.atomys.advr.config;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * General Options for the config.
+ *
+ * <p>
+ * The options are held by an immutable {@link ConfigSnapshot}, read with
+ * {@link #get()}. A change of the options publishes a new snapshot and notifies
+ * the {@link Subscriber subscribers}, which compare the previous and the new
+ * snapshots to invalidate only what depends on a changed option.
+ * </p>
  */
 public final class Configuration {
+  private static final List<Subscriber> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+  private static volatile ConfigSnapshot current = ConfigSnapshot.builder().build(0);
 
   /**
    * Private constructor to prevent instantiation of the utility class.
@@ -13,20 +25,58 @@ public final class Configuration {
     throw new UnsupportedOperationException("Utility class");
   }
 
-  // appearance section
-  public static boolean displaySidebar = true; // added in v0.3
-  public static boolean displayDescription = true; // added in v0.2
-  public static boolean criteriasAlphabeticOrder = true; // added in v0.3, true by default in v0.5
-  public static boolean tabsAlphabeticOrder = true; // added in v0.6
-  public static BackgroundStyle backgroundStyle = BackgroundStyle.TRANSPARENT; // added in v0.4
-  public static TranslationMode criteriasTranslationMode = TranslationMode.ONLY_COMPATIBLE; // added in v0.6
+  /**
+   * Gets the current snapshot of the configuration.
+   *
+   * @return the current snapshot
+   */
+  public static ConfigSnapshot get() {
+    return current;
+  }
+
+  /**
+   * Publishes the values of the given builder as the new snapshot, and
+   * notifies the subscribers. Nothing is published if no value changed.
+   *
+   * @param builder the builder holding the new values
+   * @return the current snapshot, after the publication
+   */
+  public static synchronized ConfigSnapshot publish(final ConfigSnapshot.Builder builder) {
+    final ConfigSnapshot previous = current;
+    final ConfigSnapshot next = builder.build(previous.getVersion() + 1);
+    if (next.hasSameValues(previous)) {
+      return previous;
+    }
 
-  // Advanced customization
-  public static int headerHeight = 48; // added in v0.2
-  public static int footerHeight = 32; // added in v0.2
-  public static int criteriasWidth = 142; // added in v0.2
-  public static int aboveWidgetLimit = 14; // added in v0.2
-  public static int belowWidgetLimit = 14; // added in v0.2
+    current = next;
+    for (final Subscriber subscriber : SUBSCRIBERS) {
+      subscriber.onConfigurationChanged(previous, next);
+    }
+    return next;
+  }
+
+  /**
+   * Registers a subscriber notified of each published snapshot.
+   *
+   * @param subscriber the subscriber to register
+   */
+  public static void subscribe(final Subscriber subscriber) {
+    SUBSCRIBERS.add(subscriber);
+  }
+
+  /**
+   * A subscriber to the changes of the configuration.
+   */
+  @FunctionalInterface
+  public interface Subscriber {
+    /**
+     * Called when a new snapshot is published, on the thread publishing it.
+     *
+     * @param previous the previous snapshot
+     * @param current  the new snapshot
+     */
+    void onConfigurationChanged(ConfigSnapshot previous, ConfigSnapshot current);
+  }
 
   /**
    * Enum representing different styles for background configuration.
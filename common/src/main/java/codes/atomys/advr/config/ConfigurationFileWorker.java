@@ -0,0 +1,248 @@
+package codes.atomys.advr.config;
+
+import codes.atomys.advr.utils.Utils;
+import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.ConfigFormat;
+import com.electronwill.nightconfig.core.file.FormatDetector;
+import com.electronwill.nightconfig.core.io.WritingException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The background worker writing and reloading the configuration file, so the
+ * render thread never waits for the disk.
+ *
+ * <p>
+ * Writes and reloads run one at a time on a single thread, each after a short
+ * delay during which a newer request replaces the pending one: a burst of saves
+ * is written once, with the latest snapshot. The file is written to a temporary
+ * file first, then moved over the configuration file, so a reader never sees a
+ * partially written file.
+ * </p>
+ *
+ * <p>
+ * The directory of the configuration file is watched for changes made outside
+ * of the game, which are reloaded. The changes made by the worker itself are
+ * recognized by the modification time of the file and not reloaded.
+ * </p>
+ *
+ * <p>
+ * The worker thread does not keep the game running: a write still delayed when
+ * the game exits is run right away by a shutdown hook, see {@link #flush()}.
+ * </p>
+ */
+final class ConfigurationFileWorker {
+  private static final long DEBOUNCE_MILLIS = 250L;
+  private static final long FLUSH_TIMEOUT_SECONDS = 5L;
+  private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+      runnable -> daemon(runnable, "Advancements Reloaded Config"));
+
+  @Nullable
+  private static ScheduledFuture<?> pendingWrite;
+  @Nullable
+  private static Path pendingWritePath;
+  @Nullable
+  private static ScheduledFuture<?> pendingReload;
+  // Only accessed on the worker thread
+  @Nullable
+  private static FileTime lastWritten;
+  private static boolean watching;
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(ConfigurationFileWorker::flush,
+        "Advancements Reloaded Config Flush"));
+  }
+
+  // Private constructor to prevent instantiation
+  private ConfigurationFileWorker() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Writes the current configuration to the given file, once no other write
+   * was requested for a short delay.
+   *
+   * @param path the path of the configuration file
+   */
+  static synchronized void scheduleWrite(final Path path) {
+    if (pendingWrite != null) {
+      pendingWrite.cancel(false);
+    }
+    pendingWritePath = path;
+    pendingWrite = EXECUTOR.schedule(() -> write(path), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs the pending write right away, if any, and waits for it to complete.
+   * A write already running is waited for.
+   */
+  static void flush() {
+    final Future<?> flushed;
+    synchronized (ConfigurationFileWorker.class) {
+      if (pendingWrite == null || pendingWrite.isDone()) {
+        return;
+      }
+      if (pendingWrite.cancel(false)) {
+        final Path path = pendingWritePath;
+        pendingWrite = EXECUTOR.schedule(() -> write(path), 0L, TimeUnit.MILLISECONDS);
+      }
+      flushed = pendingWrite;
+    }
+
+    try {
+      flushed.get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (final ExecutionException | TimeoutException | CancellationException e) {
+      Utils.LOGGER.warn("Failed to save the configuration before exiting", e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Watches the given file, and runs the given task on the worker thread when
+   * it is changed outside of the game. Only the first call starts a watcher.
+   *
+   * @param path   the path of the configuration file
+   * @param reload the task reloading the file
+   */
+  static synchronized void watch(final Path path, final Runnable reload) {
+    if (watching) {
+      return;
+    }
+
+    watching = true;
+    daemon(() -> watchLoop(path, reload), "Advancements Reloaded Config Watcher").start();
+  }
+
+  private static void watchLoop(final Path path, final Runnable reload) {
+    final Path directory = path.toAbsolutePath().getParent();
+    final Path fileName = path.getFileName();
+    try (WatchService service = directory.getFileSystem().newWatchService()) {
+      // The directory is only created by the first write on a fresh install
+      Files.createDirectories(directory);
+      directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      while (true) {
+        final WatchKey key = service.take();
+        boolean changed = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+          changed |= fileName.equals(event.context());
+        }
+        if (changed) {
+          scheduleReload(path, reload);
+        }
+        if (!key.reset()) {
+          Utils.LOGGER.warn("The configuration directory {} is no longer watched", directory);
+          return;
+        }
+      }
+    } catch (final IOException e) {
+      Utils.LOGGER.warn("Failed to watch the configuration file {}", path, e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static synchronized void scheduleReload(final Path path, final Runnable reload) {
+    if (pendingReload != null) {
+      pendingReload.cancel(false);
+    }
+    pendingReload = EXECUTOR.schedule(() -> {
+      // A pending write replaces the file with the configuration of the game
+      if (isWritePending() || isLastWritten(path)) {
+        return;
+      }
+      reload.run();
+    }, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private static synchronized boolean isWritePending() {
+    return pendingWrite != null && !pendingWrite.isDone();
+  }
+
+  // Whether the file is still the one written by the worker
+  private static boolean isLastWritten(final Path path) {
+    try {
+      return Files.getLastModifiedTime(path).equals(lastWritten);
+    } catch (final IOException e) {
+      return false;
+    }
+  }
+
+  private static void write(final Path path) {
+    final ConfigSnapshot snapshot = Configuration.get();
+    final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    final ConfigFormat<?> format = FormatDetector.detect(path.toFile());
+    if (format == null) {
+      Utils.LOGGER.warn("Failed to save the configuration to {}: unknown format", path);
+      return;
+    }
+
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+        format.createWriter().write(toConfig(snapshot), writer);
+      }
+      move(temporary, path);
+      lastWritten = Files.getLastModifiedTime(path);
+    } catch (final IOException | WritingException e) {
+      Utils.LOGGER.warn("Failed to save the configuration to {}", path, e);
+    }
+  }
+
+  private static void move(final Path source, final Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static Config toConfig(final ConfigSnapshot snapshot) {
+    final Config appearance = Config.inMemory();
+    appearance.set("display_sideabar", snapshot.isDisplaySidebar());
+    appearance.set("display_description", snapshot.isDisplayDescription());
+    appearance.set("criterias_alphabetic_order", snapshot.isCriteriasAlphabeticOrder());
+    appearance.set("tabs_alphabetic_order", snapshot.isTabsAlphabeticOrder());
+    appearance.set("background_style", snapshot.getBackgroundStyle().name());
+    appearance.set("criterias_translation_mode", snapshot.getCriteriasTranslationMode().name());
+
+    final Config advancedCustomization = Config.inMemory();
+    advancedCustomization.set("header_height", snapshot.getHeaderHeight());
+    advancedCustomization.set("footer_height", snapshot.getFooterHeight());
+    advancedCustomization.set("criterias_width", snapshot.getCriteriasWidth());
+    advancedCustomization.set("above_widget_limit", snapshot.getAboveWidgetLimit());
+    advancedCustomization.set("below_widget_limit", snapshot.getBelowWidgetLimit());
+    advancedCustomization.set("render_cache", snapshot.isRenderCache());
+    advancedCustomization.set("render_cache_budget", snapshot.getRenderCacheBudget());
+
+    final Config config = Config.inMemory();
+    config.set("appearance", appearance);
+    config.set("advanced_customization", advancedCustomization);
+    return config;
+  }
+
+  private static Thread daemon(final Runnable runnable, final String name) {
+    final Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
@@ -2,10 +2,15 @@ package codes.atomys.advr.config;
 
 import codes.atomys.advr.utils.Utils;
 import com.electronwill.nightconfig.core.Config;
+import com.electronwill.nightconfig.core.ConfigFormat;
 import com.electronwill.nightconfig.core.file.FileConfig;
-import java.io.File;
+import com.electronwill.nightconfig.core.file.FormatDetector;
+import com.electronwill.nightconfig.core.io.ParsingException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import net.minecraft.client.Minecraft;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The ModConfigurationFile class is a utility class responsible for saving and
@@ -30,86 +35,103 @@ public final class ModConfigurationFile {
   /**
    * A Runnable that saves the current configuration settings to a file.
    * The file format is determined by the storedFileType (either JSON or TOML).
-   * If the file does not exist, the necessary directories are created.
-   * The configuration is saved concurrently and with autosave enabled.
+   * The file is written in the background, once the saves stop for a short
+   * delay, see {@link ConfigurationFileWorker}.
    */
-  public final static Runnable saveRunnable = () -> {
-    final Path path = Paths.get(
-        storedFileType == FileType.JSON ? "config/advancements_reloaded.json" : "config/advancements_reloaded.toml");
-
-    final File file = path.toFile();
-    if (!file.exists())
-      file.getParentFile().mkdirs();
-
-    final FileConfig config = FileConfig.builder(path).concurrent().autosave().build();
-
-    final Config appearance = Config.inMemory();
-    appearance.set("display_sideabar", Configuration.displaySidebar);
-    appearance.set("display_description", Configuration.displayDescription);
-    appearance.set("criterias_alphabetic_order", Configuration.criteriasAlphabeticOrder);
-    appearance.set("tabs_alphabetic_order", Configuration.tabsAlphabeticOrder);
-    appearance.set("background_style", Configuration.backgroundStyle.name());
-    appearance.set("criterias_translation_mode", Configuration.criteriasTranslationMode.name());
-
-    final Config advancedCustomization = Config.inMemory();
-    advancedCustomization.set("header_height", Configuration.headerHeight);
-    advancedCustomization.set("footer_height", Configuration.footerHeight);
-    advancedCustomization.set("criterias_width", Configuration.criteriasWidth);
-    advancedCustomization.set("above_widget_limit", Configuration.aboveWidgetLimit);
-    advancedCustomization.set("below_widget_limit", Configuration.belowWidgetLimit);
-
-    config.set("appearance", appearance);
-    config.set("advanced_customization", advancedCustomization);
-
-    config.close();
-  };
+  public final static Runnable saveRunnable = () -> ConfigurationFileWorker.scheduleWrite(path());
 
   /**
-   * Load the configuration from the file of the given filetype.
+   * Load the configuration from the file of the given filetype, and publish it
+   * as the current {@link ConfigSnapshot}.
    * If the file does not exist, do nothing.
    * If the file contains invalid data, the invalid data is ignored.
+   * The file is then watched, and reloaded when it is changed outside of the
+   * game.
    *
    * @param filetype the type of the file to load from.
    */
   public static void load(final FileType filetype) {
     storedFileType = filetype;
-    final File file = new File(
-        storedFileType == FileType.JSON ? "config/advancements_reloaded.json" : "config/advancements_reloaded.toml");
+    final Path path = path();
 
-    if (!file.exists()) {
+    if (!Files.exists(path)) {
       Utils.LOGGER.info("Configuration file not found, creating new one.");
       saveRunnable.run();
-      return;
+    } else {
+      final ConfigSnapshot.Builder builder = read(path);
+      if (builder != null) {
+        Configuration.publish(builder);
+      }
     }
 
-    final FileConfig config = FileConfig.builder(file).concurrent().autosave().build();
+    ConfigurationFileWorker.watch(path, ModConfigurationFile::reload);
+  }
 
-    config.load();
-    final Config appearance = config.getOrElse("appearance", () -> null);
-    final Config advancedCustomization = config.getOrElse("advanced_customization", () -> null);
+  private static Path path() {
+    return Paths.get(
+        storedFileType == FileType.JSON ? "config/advancements_reloaded.json" : "config/advancements_reloaded.toml");
+  }
 
-    if (appearance == null) {
-      config.close();
+  // Reads the file again after it was changed outside of the game, the new
+  // snapshot is published on the client thread as the subscribers update the
+  // screen
+  private static void reload() {
+    final ConfigSnapshot.Builder builder = read(path());
+    if (builder == null) {
       return;
     }
 
-    Configuration.displaySidebar = appearance.getOrElse("display_sideabar", true);
-    Configuration.displayDescription = appearance.getOrElse("display_description", true);
-    Configuration.criteriasAlphabeticOrder = appearance.getOrElse("criterias_alphabetic_order", true);
-    Configuration.tabsAlphabeticOrder = appearance.getOrElse("tabs_alphabetic_order", true);
-    Configuration.backgroundStyle = Configuration.BackgroundStyle
-        .valueOf(appearance.getOrElse("background_style", "TRANSPARENT").toUpperCase());
-    Configuration.criteriasTranslationMode = Configuration.TranslationMode
-        .valueOf(appearance.getOrElse("criterias_translation_mode", "ONLY_COMPATIBLE").toUpperCase());
-
-    Configuration.headerHeight = advancedCustomization.getOrElse("header_height", 48);
-    Configuration.footerHeight = advancedCustomization.getOrElse("footer_height", 32);
-    Configuration.criteriasWidth = advancedCustomization.getOrElse("criterias_width", 142);
-    Configuration.aboveWidgetLimit = advancedCustomization.getOrElse("above_widget_limit", 14);
-    Configuration.belowWidgetLimit = advancedCustomization.getOrElse("below_widget_limit", 14);
+    Utils.LOGGER.info("Configuration file changed, reloading.");
+    final Minecraft client = Minecraft.getInstance();
+    if (client == null) {
+      Configuration.publish(builder);
+    } else {
+      client.execute(() -> Configuration.publish(builder));
+    }
+  }
 
-    config.close();
+  // Reads the values of the file, or returns null if the file is missing its
+  // appearance section, cannot be parsed or holds a value of the wrong type
+  @Nullable
+  private static ConfigSnapshot.Builder read(final Path path) {
+    final ConfigFormat<?> format = FormatDetector.detect(path.toFile());
+    if (format == null) {
+      Utils.LOGGER.warn("Failed to read the configuration from {}, keeping the current one: unknown format", path);
+      return null;
+    }
 
+    final FileConfig config = FileConfig.of(path, format);
+    try {
+      config.load();
+      final Config appearance = config.getOrElse("appearance", () -> null);
+      final Config advancedCustomization = config.getOrElse("advanced_customization", Config::inMemory);
+
+      if (appearance == null) {
+        return null;
+      }
+
+      return ConfigSnapshot.builder()
+          .displaySidebar(appearance.getOrElse("display_sideabar", true))
+          .displayDescription(appearance.getOrElse("display_description", true))
+          .criteriasAlphabeticOrder(appearance.getOrElse("criterias_alphabetic_order", true))
+          .tabsAlphabeticOrder(appearance.getOrElse("tabs_alphabetic_order", true))
+          .backgroundStyle(Configuration.BackgroundStyle
+              .valueOf(appearance.getOrElse("background_style", "TRANSPARENT").toUpperCase()))
+          .criteriasTranslationMode(Configuration.TranslationMode
+              .valueOf(appearance.getOrElse("criterias_translation_mode", "ONLY_COMPATIBLE").toUpperCase()))
+          .headerHeight(advancedCustomization.getOrElse("header_height", 48))
+          .footerHeight(advancedCustomization.getOrElse("footer_height", 32))
+          .criteriasWidth(advancedCustomization.getOrElse("criterias_width", 142))
+          .aboveWidgetLimit(advancedCustomization.getOrElse("above_widget_limit", 14))
+          .belowWidgetLimit(advancedCustomization.getOrElse("below_widget_limit", 14))
+          .renderCache(advancedCustomization.getOrElse("render_cache", false))
+          .renderCacheBudget(advancedCustomization.getOrElse("render_cache_budget", 64));
+    } catch (final ParsingException | IllegalArgumentException | ClassCastException e) {
+      Utils.LOGGER.warn("Failed to read the configuration from {}, keeping the current one", path, e);
+      return null;
+    } finally {
+      config.close();
+    }
   }
 
   /**
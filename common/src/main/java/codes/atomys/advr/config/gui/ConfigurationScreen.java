@@ -1,5 +1,6 @@
 package codes.atomys.advr.config.gui;
 
+import codes.atomys.advr.config.ConfigSnapshot;
 import codes.atomys.advr.config.Configuration;
 import codes.atomys.advr.config.ModConfigurationFile;
 import me.shedaniel.clothconfig2.api.ConfigBuilder;
@@ -37,9 +38,9 @@ import net.minecraft.network.chat.Component;
  * </p>
  * 
  * <p>
- * The settings are saved using save consumers that update the corresponding
- * fields in the
- * Configuration class.
+ * The settings are saved using save consumers that update a builder of the
+ * current {@link ConfigSnapshot}, published as a new snapshot of the
+ * Configuration class when the screen is saved.
  * </p>
  */
 public final class ConfigurationScreen {
@@ -66,9 +67,9 @@ public final class ConfigurationScreen {
    * </p>
    *
    * <p>
-   * The settings are saved using save consumers that update the corresponding
-   * fields in the
-   * Configuration class.
+   * The settings are saved using save consumers that update a builder of the
+   * current {@link ConfigSnapshot}, published as a new snapshot of the
+   * Configuration class when the screen is saved.
    * </p>
    *
    * @param parent the parent screen.
@@ -90,29 +91,36 @@ public final class ConfigurationScreen {
    * </p>
    *
    * <p>
-   * The settings are saved using save consumers that update the corresponding
-   * fields in the
-   * Configuration class.
+   * The settings are saved using save consumers that update a builder of the
+   * current {@link ConfigSnapshot}, published as a new snapshot of the
+   * Configuration class when the screen is saved.
    * </p>
    *
    * @param parent the parent screen.
    * @return a ConfigBuilder with various configuration settings.
    */
   public static ConfigBuilder configBuilder(final Screen parent) {
+    final ConfigSnapshot current = Configuration.get();
+    final ConfigSnapshot.Builder values = current.toBuilder();
 
     final ConfigBuilder builder = ConfigBuilder.create()
         .setParentScreen(parent)
         .setTransparentBackground(true)
         .setTitle(Component.translatable("text.config.advancements_reloaded.title"))
-        .setSavingRunnable(ModConfigurationFile.saveRunnable);
+        .setSavingRunnable(() -> {
+          // Subscribers invalidate what depends on the changed values
+          Configuration.publish(values);
+          ModConfigurationFile.saveRunnable.run();
+        });
 
-    createApparanceEntries(builder);
-    createAdvancedCustomizationEntries(builder);
+    createApparanceEntries(builder, current, values);
+    createAdvancedCustomizationEntries(builder, current, values);
 
     return builder;
   }
 
-  private static void createApparanceEntries(final ConfigBuilder builder) {
+  private static void createApparanceEntries(final ConfigBuilder builder, final ConfigSnapshot current,
+      final ConfigSnapshot.Builder values) {
     final ConfigEntryBuilder entryBuilder = builder.entryBuilder();
     final ConfigCategory appearance = builder
         .getOrCreateCategory(Component.translatable("text.config.advancements_reloaded.section.appearance"));
@@ -120,66 +128,67 @@ public final class ConfigurationScreen {
     appearance.addEntry(
         entryBuilder
             .startBooleanToggle(Component.translatable("text.config.advancements_reloaded.option.display_sidebar"),
-                Configuration.displaySidebar)
+                current.isDisplaySidebar())
             .setDefaultValue(true)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.display_sidebar.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.displaySidebar = newValue)
+            .setSaveConsumer(values::displaySidebar)
             .build());
 
     appearance.addEntry(
         entryBuilder
             .startBooleanToggle(Component.translatable("text.config.advancements_reloaded.option.display_description"),
-                Configuration.displayDescription)
+                current.isDisplayDescription())
             .setDefaultValue(true)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.display_description.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.displayDescription = newValue)
+            .setSaveConsumer(values::displayDescription)
             .build());
 
     appearance.addEntry(
         entryBuilder
             .startBooleanToggle(
                 Component.translatable("text.config.advancements_reloaded.option.criterias_alphabetic_order"),
-                Configuration.criteriasAlphabeticOrder)
+                current.isCriteriasAlphabeticOrder())
             .setDefaultValue(true)
             .setTooltip(
                 Component.translatable("text.config.advancements_reloaded.option.criterias_alphabetic_order.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.criteriasAlphabeticOrder = newValue)
+            .setSaveConsumer(values::criteriasAlphabeticOrder)
             .build());
 
     appearance.addEntry(
         entryBuilder
             .startBooleanToggle(
                 Component.translatable("text.config.advancements_reloaded.option.tabs_alphabetic_order"),
-                Configuration.tabsAlphabeticOrder)
+                current.isTabsAlphabeticOrder())
             .setDefaultValue(true)
             .setTooltip(
                 Component.translatable("text.config.advancements_reloaded.option.tabs_alphabetic_order.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.tabsAlphabeticOrder = newValue)
+            .setSaveConsumer(values::tabsAlphabeticOrder)
             .build());
 
     appearance.addEntry(
         entryBuilder
             .startEnumSelector(Component.translatable("text.config.advancements_reloaded.option.background_style"),
-                Configuration.BackgroundStyle.class, Configuration.backgroundStyle)
+                Configuration.BackgroundStyle.class, current.getBackgroundStyle())
             .setDefaultValue(Configuration.BackgroundStyle.TRANSPARENT)
             .setTooltip(
                 Component.translatable("text.config.advancements_reloaded.option.background_style.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.backgroundStyle = newValue)
+            .setSaveConsumer(values::backgroundStyle)
             .build());
 
     appearance.addEntry(
         entryBuilder
             .startEnumSelector(
                 Component.translatable("text.config.advancements_reloaded.option.criterias_translation_mode"),
-                Configuration.TranslationMode.class, Configuration.criteriasTranslationMode)
+                Configuration.TranslationMode.class, current.getCriteriasTranslationMode())
             .setDefaultValue(Configuration.TranslationMode.ONLY_COMPATIBLE)
             .setTooltip(
                 Component.translatable("text.config.advancements_reloaded.option.criterias_translation_mode.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.criteriasTranslationMode = newValue)
+            .setSaveConsumer(values::criteriasTranslationMode)
             .build());
   }
 
-  private static void createAdvancedCustomizationEntries(final ConfigBuilder builder) {
+  private static void createAdvancedCustomizationEntries(final ConfigBuilder builder, final ConfigSnapshot current,
+      final ConfigSnapshot.Builder values) {
     final ConfigEntryBuilder entryBuilder = builder.entryBuilder();
     final ConfigCategory advancedCustomization = builder.getOrCreateCategory(
         Component.translatable("text.config.advancements_reloaded.section.advanced_customization"));
@@ -187,46 +196,65 @@ public final class ConfigurationScreen {
     advancedCustomization.addEntry(
         entryBuilder
             .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.header_height"),
-                Configuration.headerHeight, 32, 128)
+                current.getHeaderHeight(), 32, 128)
             .setDefaultValue(48)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.header_height.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.headerHeight = newValue)
+            .setSaveConsumer(values::headerHeight)
             .build());
 
     advancedCustomization.addEntry(
         entryBuilder
             .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.footer_height"),
-                Configuration.footerHeight, 32, 128)
+                current.getFooterHeight(), 32, 128)
             .setDefaultValue(32)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.footer_height.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.footerHeight = newValue)
+            .setSaveConsumer(values::footerHeight)
             .build());
 
     advancedCustomization.addEntry(
         entryBuilder
             .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.criterias_width"),
-                Configuration.criteriasWidth, 50, 512)
+                current.getCriteriasWidth(), 50, 512)
             .setDefaultValue(142)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.criterias_width.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.criteriasWidth = newValue)
+            .setSaveConsumer(values::criteriasWidth)
             .build());
 
     advancedCustomization.addEntry(
         entryBuilder
             .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.above_widget_limit"),
-                Configuration.aboveWidgetLimit, 0, 42)
+                current.getAboveWidgetLimit(), 0, 42)
             .setDefaultValue(14)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.above_widget_limit.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.aboveWidgetLimit = newValue)
+            .setSaveConsumer(values::aboveWidgetLimit)
             .build());
 
     advancedCustomization.addEntry(
         entryBuilder
             .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.below_widget_limit"),
-                Configuration.belowWidgetLimit, 0, 42)
+                current.getBelowWidgetLimit(), 0, 42)
             .setDefaultValue(14)
             .setTooltip(Component.translatable("text.config.advancements_reloaded.option.below_widget_limit.tooltip"))
-            .setSaveConsumer(newValue -> Configuration.belowWidgetLimit = newValue)
+            .setSaveConsumer(values::belowWidgetLimit)
+            .build());
+
+    advancedCustomization.addEntry(
+        entryBuilder
+            .startBooleanToggle(Component.translatable("text.config.advancements_reloaded.option.render_cache"),
+                current.isRenderCache())
+            .setDefaultValue(false)
+            .setTooltip(Component.translatable("text.config.advancements_reloaded.option.render_cache.tooltip"))
+            .setSaveConsumer(values::renderCache)
+            .build());
+
+    advancedCustomization.addEntry(
+        entryBuilder
+            .startIntSlider(Component.translatable("text.config.advancements_reloaded.option.render_cache_budget"),
+                current.getRenderCacheBudget(), 8, 512)
+            .setDefaultValue(64)
+            .setTooltip(
+                Component.translatable("text.config.advancements_reloaded.option.render_cache_budget.tooltip"))
+            .setSaveConsumer(values::renderCacheBudget)
             .build());
   }
 }
@@ -0,0 +1,32 @@
+package codes.atomys.advr.mixin;
+
+import codes.atomys.advr.screens.AdvancementWarmUp;
+import net.minecraft.client.multiplayer.ClientAdvancements;
+import net.minecraft.network.protocol.game.ClientboundUpdateAdvancementsPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * This mixin class starts building the advancement screen in the background
+ * once the advancements of the player are synchronized on join.
+ */
+@Mixin(ClientAdvancements.class)
+public class ClientAdvancementsMixin {
+
+  /**
+   * Starts the {@link AdvancementWarmUp} after a packet resetting the
+   * advancements was applied, which is the synchronization sent when the
+   * player joins a world.
+   *
+   * @param packet the advancements packet being applied
+   * @param ci     the callback info
+   */
+  @Inject(method = "update", at = @At("TAIL"))
+  private void warmUpAdvancements(final ClientboundUpdateAdvancementsPacket packet, final CallbackInfo ci) {
+    if (packet.shouldReset()) {
+      AdvancementWarmUp.start((ClientAdvancements) (Object) this);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package codes.atomys.advr.mixin;
+
+import codes.atomys.advr.render.IconAtlas;
+import net.minecraft.client.renderer.entity.ItemRenderer;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * This mixin class rebuilds the icon atlas of the advancement screen when the
+ * item models are reloaded.
+ */
+@Mixin(ItemRenderer.class)
+public class ItemRendererMixin {
+
+  /**
+   * Invalidates the {@link IconAtlas} once the item models are reloaded, so
+   * the icons are rendered again with the new resources.
+   *
+   * @param resourceManager the resource manager being reloaded
+   * @param ci              the callback info
+   */
+  @Inject(method = "onResourceManagerReload", at = @At("TAIL"))
+  private void invalidateIconAtlas(final ResourceManager resourceManager, final CallbackInfo ci) {
+    IconAtlas.getInstance().invalidate();
+  }
+}
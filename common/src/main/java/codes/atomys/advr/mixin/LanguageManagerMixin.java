@@ -0,0 +1,41 @@
+package codes.atomys.advr.mixin;
+
+import codes.atomys.advr.ReloadedCriterionProgress;
+import codes.atomys.advr.screens.AdvancementModel;
+import codes.atomys.advr.utils.MissingTranslations;
+import codes.atomys.advr.utils.TranslationIndex;
+import net.minecraft.client.resources.language.LanguageManager;
+import net.minecraft.locale.Language;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * This mixin class drops the advancement model and the resolved criterion
+ * names when the translations are reloaded, as they hold text of the previous
+ * language, and indexes the new translation keys.
+ */
+@Mixin(LanguageManager.class)
+public class LanguageManagerMixin {
+
+  /**
+   * Resets the {@link AdvancementModel} once the translations are reloaded, so
+   * the tabs and widgets are built again with the new translations the next
+   * time the advancement screen is opened. The criterion names are resolved
+   * again too, see {@link ReloadedCriterionProgress#invalidateNames()}, from
+   * the {@link TranslationIndex} of the new translations, and the
+   * {@link MissingTranslations} are looked up again.
+   *
+   * @param resourceManager the resource manager being reloaded
+   * @param ci              the callback info
+   */
+  @Inject(method = "onResourceManagerReload", at = @At("TAIL"))
+  private void resetAdvancementModel(final ResourceManager resourceManager, final CallbackInfo ci) {
+    TranslationIndex.rebuild(Language.getInstance());
+    AdvancementModel.reset();
+    ReloadedCriterionProgress.invalidateNames();
+    MissingTranslations.clear();
+  }
+}
@@ -1,17 +1,22 @@
 package codes.atomys.advr.mixin;
 
+import codes.atomys.advr.screens.AdvancementModel;
 import codes.atomys.advr.screens.AdvancementReloadedScreen;
+import codes.atomys.advr.screens.AdvancementWarmUp;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.gui.screens.advancements.AdvancementsScreen;
 import net.minecraft.client.multiplayer.ClientAdvancements;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
  * This mixin class replaces the default advancements screen when the player
- * opens the menu with the keybinding.
+ * opens the menu with the keybinding, and drives the per-tick work of the
+ * advancement model.
  */
 @Mixin(Minecraft.class)
 public class MinecraftClientMixin {
@@ -51,4 +56,17 @@ public class MinecraftClientMixin {
       client.setScreen(screen);
     }
   }
+
+  /**
+   * Applies the advancement events received during the tick to the
+   * {@link AdvancementModel}, and lets the {@link AdvancementWarmUp} create the
+   * next widgets, at the end of each client tick.
+   *
+   * @param ci the callback info
+   */
+  @Inject(method = "tick", at = @At("TAIL"))
+  private void tickAdvancementModel(final CallbackInfo ci) {
+    AdvancementModel.tick();
+    AdvancementWarmUp.tick();
+  }
 }
@@ -15,6 +15,8 @@
  * <ul>
  * <li>{@link codes.atomys.advr.config}: Configuration classes and interfaces
  * for the mod.</li>
+ * <li>{@link codes.atomys.advr.render}: Rendering helpers used by the
+ * advancement screen.</li>
  * <li>{@link codes.atomys.advr.screens}: Classes for rendering the advancement
  * screen.</li>
  * <li>{@link codes.atomys.advr.utils}: Utility classes and interfaces for the
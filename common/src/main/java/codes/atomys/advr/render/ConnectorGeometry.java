@@ -0,0 +1,212 @@
+package codes.atomys.advr.render;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.RenderType;
+import org.joml.Matrix4f;
+
+/**
+ * Retained geometry of the lines connecting the widgets of an advancement tab.
+ *
+ * <p>
+ * The layout of a tab never changes once its widgets are added, so the
+ * connectors are computed once, in tree coordinates, and stored as a compact
+ * array of rectangles. Collinear rectangles, such as the vertical lines shared
+ * by the children of a same parent, are merged together.
+ * </p>
+ *
+ * <p>
+ * Rendering only applies the origin of the tab as a translation and submits
+ * every visible rectangle in a single batch, the border pass first and the
+ * line pass on top of it.
+ * </p>
+ */
+public final class ConnectorGeometry {
+  private static final int BORDER_COLOR = -16777216;
+  private static final int LINE_COLOR = -1;
+
+  private final List<int[]> pendingBorders = new ArrayList<>();
+  private final List<int[]> pendingLines = new ArrayList<>();
+  private int[] borders = new int[0];
+  private int[] lines = new int[0];
+  private boolean compiled = true;
+
+  /**
+   * Adds the connector between a parent widget and one of its children.
+   * <p>
+   * The rectangles are the ones drawn by the vanilla advancement screen: a
+   * horizontal line from the parent, a vertical line and a horizontal line to
+   * the child, each surrounded by a one pixel border.
+   * </p>
+   *
+   * @param parentX the x-coordinate of the parent widget in the tree
+   * @param parentY the y-coordinate of the parent widget in the tree
+   * @param childX  the x-coordinate of the child widget in the tree
+   * @param childY  the y-coordinate of the child widget in the tree
+   */
+  public void addConnector(final int parentX, final int parentY, final int childX, final int childY) {
+    final int i = parentX + 13;
+    final int j = parentX + 26 + 4;
+    final int k = parentY + 13;
+    final int l = childX + 13;
+    final int m = childY + 13;
+
+    this.pendingBorders.add(hLine(j, i, k - 1));
+    this.pendingBorders.add(hLine(j + 1, i, k));
+    this.pendingBorders.add(hLine(j, i, k + 1));
+    this.pendingBorders.add(hLine(l, j - 1, m - 1));
+    this.pendingBorders.add(hLine(l, j - 1, m));
+    this.pendingBorders.add(hLine(l, j - 1, m + 1));
+    this.pendingBorders.add(vLine(j - 1, m, k));
+    this.pendingBorders.add(vLine(j + 1, m, k));
+
+    this.pendingLines.add(hLine(j, i, k));
+    this.pendingLines.add(hLine(l, j, m));
+    this.pendingLines.add(vLine(j, m, k));
+    this.compiled = false;
+  }
+
+  /**
+   * Merges the connectors added since the last call into the compact
+   * rectangle arrays used for rendering.
+   */
+  public void compile() {
+    if (this.compiled) {
+      return;
+    }
+
+    this.borders = merge(this.borders, this.pendingBorders);
+    this.lines = merge(this.lines, this.pendingLines);
+    this.pendingBorders.clear();
+    this.pendingLines.clear();
+    this.compiled = true;
+  }
+
+  /**
+   * Returns the number of rectangles submitted when the whole geometry is
+   * visible.
+   *
+   * @return the number of rectangles of the geometry
+   */
+  public int size() {
+    this.compile();
+    return (this.borders.length + this.lines.length) / 4;
+  }
+
+  /**
+   * Renders the connectors overlapping the visible area of the tab.
+   *
+   * @param context    the GUI graphics context to render to
+   * @param originX    the x-coordinate of the origin of the tree
+   * @param originY    the y-coordinate of the origin of the tree
+   * @param viewWidth  the width of the visible area of the tab
+   * @param viewHeight the height of the visible area of the tab
+   */
+  public void render(final GuiGraphics context, final int originX, final int originY, final int viewWidth,
+      final int viewHeight) {
+    this.compile();
+
+    context.pose().pushPose();
+    context.pose().translate((float) originX, (float) originY, 0.0F);
+    final Matrix4f matrix = context.pose().last().pose();
+    final VertexConsumer consumer = context.bufferSource().getBuffer(RenderType.gui());
+    final int minX = -originX;
+    final int minY = -originY;
+    final int maxX = viewWidth - originX;
+    final int maxY = viewHeight - originY;
+
+    emit(consumer, matrix, this.borders, BORDER_COLOR, minX, minY, maxX, maxY);
+    emit(consumer, matrix, this.lines, LINE_COLOR, minX, minY, maxX, maxY);
+    context.pose().popPose();
+    context.flush();
+  }
+
+  private static void emit(final VertexConsumer consumer, final Matrix4f matrix, final int[] rects,
+      final int color, final int minX, final int minY, final int maxX, final int maxY) {
+    for (int index = 0; index < rects.length; index += 4) {
+      final int x1 = rects[index];
+      final int y1 = rects[index + 1];
+      final int x2 = rects[index + 2];
+      final int y2 = rects[index + 3];
+      if (x2 < minX || x1 > maxX || y2 < minY || y1 > maxY) {
+        continue;
+      }
+
+      consumer.addVertex(matrix, (float) x1, (float) y1, 0.0F).setColor(color);
+      consumer.addVertex(matrix, (float) x1, (float) y2, 0.0F).setColor(color);
+      consumer.addVertex(matrix, (float) x2, (float) y2, 0.0F).setColor(color);
+      consumer.addVertex(matrix, (float) x2, (float) y1, 0.0F).setColor(color);
+    }
+  }
+
+  // Same rectangle as GuiGraphics#hLine(int, int, int, int)
+  private static int[] hLine(final int x1, final int x2, final int y) {
+    return rect(Math.min(x1, x2), y, Math.max(x1, x2) + 1, y + 1);
+  }
+
+  // Same rectangle as GuiGraphics#vLine(int, int, int, int)
+  private static int[] vLine(final int x, final int y1, final int y2) {
+    return rect(x, Math.min(y1, y2) + 1, x + 1, Math.max(y1, y2));
+  }
+
+  private static int[] rect(final int x1, final int y1, final int x2, final int y2) {
+    final int[] rect = new int[4];
+    rect[0] = x1;
+    rect[1] = y1;
+    rect[2] = x2;
+    rect[3] = y2;
+    return rect;
+  }
+
+  // Rectangles sharing the same horizontal span are merged when they overlap
+  // or touch vertically, then rectangles sharing the same vertical span are
+  // merged when they overlap or touch horizontally. As every rectangle of a
+  // pass has the same opaque color, the result covers exactly the same pixels.
+  private static int[] merge(final int[] compiled, final List<int[]> pending) {
+    final List<int[]> rects = new ArrayList<>(compiled.length / 4 + pending.size());
+    for (int index = 0; index < compiled.length; index += 4) {
+      rects.add(Arrays.copyOfRange(compiled, index, index + 4));
+    }
+    for (final int[] rect : pending) {
+      if (rect[0] < rect[2] && rect[1] < rect[3]) {
+        rects.add(rect);
+      }
+    }
+
+    // Vertical runs: same x span, sorted by y
+    rects.sort(Comparator.<int[]>comparingInt(rect -> rect[0]).thenComparingInt(rect -> rect[2])
+        .thenComparingInt(rect -> rect[1]));
+    final List<int[]> vertical = mergeRuns(rects, 0, 2, 1, 3);
+
+    // Horizontal runs: same y span, sorted by x
+    vertical.sort(Comparator.<int[]>comparingInt(rect -> rect[1]).thenComparingInt(rect -> rect[3])
+        .thenComparingInt(rect -> rect[0]));
+    final List<int[]> merged = mergeRuns(vertical, 1, 3, 0, 2);
+
+    final int[] result = new int[merged.size() * 4];
+    for (int index = 0; index < merged.size(); index++) {
+      System.arraycopy(merged.get(index), 0, result, index * 4, 4);
+    }
+    return result;
+  }
+
+  private static List<int[]> mergeRuns(final List<int[]> sorted, final int spanStart, final int spanEnd,
+      final int runStart, final int runEnd) {
+    final List<int[]> merged = new ArrayList<>(sorted.size());
+    int[] current = null;
+    for (final int[] rect : sorted) {
+      if (current != null && current[spanStart] == rect[spanStart] && current[spanEnd] == rect[spanEnd]
+          && rect[runStart] <= current[runEnd]) {
+        current[runEnd] = Math.max(current[runEnd], rect[runEnd]);
+      } else {
+        current = rect.clone();
+        merged.add(current);
+      }
+    }
+    return merged;
+  }
+}
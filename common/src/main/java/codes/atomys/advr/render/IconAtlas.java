@@ -0,0 +1,258 @@
+package codes.atomys.advr.render;
+
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenCustomHashMap;
+import java.util.Arrays;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.ItemOverrides;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.ItemStackLinkedSet;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+/**
+ * A shared texture holding the rendered icons of the advancement screen.
+ *
+ * <p>
+ * Each distinct item stack, compared by item and components, is rendered once
+ * into a slot of the atlas the first time it is drawn. The following draws
+ * only queue a textured quad, instead of rendering the item model again. The
+ * queued quads are drawn together in a single draw call by
+ * {@link #flush(GuiGraphics)}, which the painters call once they are done, and
+ * which is called before switching to another offscreen target.
+ * </p>
+ *
+ * <p>
+ * Icons whose rendering changes over time are always rendered live: enchanted
+ * items with their glint, models using item overrides or a custom renderer,
+ * and models using animated sprites. Icons are also rendered live once the
+ * atlas is full.
+ * </p>
+ *
+ * <p>
+ * The atlas is rebuilt when the resources are reloaded and when the GUI scale
+ * changes.
+ * </p>
+ */
+public final class IconAtlas {
+  private static final IconAtlas INSTANCE = new IconAtlas();
+  private static final int ICON_SIZE = 16;
+  private static final int SLOTS_PER_ROW = 32;
+  private static final int ATLAS_SIZE = ICON_SIZE * SLOTS_PER_ROW;
+  // Same depth as the items rendered by GuiGraphics#renderFakeItem
+  private static final float ICON_DEPTH = 150.0F;
+  private static final int UNKNOWN = -2;
+  private static final int LIVE = -1;
+  // The position and texture coordinates of the 4 vertices of a queued icon
+  private static final int FLOATS_PER_ICON = 4 * 5;
+
+  private final Object2IntMap<ItemStack> slots = new Object2IntOpenCustomHashMap<>(
+      ItemStackLinkedSet.TYPE_AND_TAG);
+  @Nullable
+  private TextureTarget target;
+  private int scale;
+  private int nextSlot;
+  private int liveDraws;
+  // The queued icons, with their vertices already transformed by the pose
+  private float[] queue = new float[64 * FLOATS_PER_ICON];
+  private int queuedIcons;
+  private final Vector3f vertex = new Vector3f();
+
+  private IconAtlas() {
+    this.slots.defaultReturnValue(UNKNOWN);
+  }
+
+  /**
+   * Gets the icon atlas shared by the advancement screens.
+   *
+   * @return the icon atlas
+   */
+  public static IconAtlas getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Renders the icon of the given item stack, from the atlas when possible.
+   * <p>
+   * The icon is drawn like {@link GuiGraphics#renderFakeItem(ItemStack, int, int)}
+   * would draw it, without the count and the durability bar. An icon drawn from
+   * the atlas is only queued, and drawn on the next {@link #flush(GuiGraphics)}.
+   * </p>
+   *
+   * @param context the GUI graphics context to render to
+   * @param stack   the item stack to render
+   * @param x       the x-coordinate of the icon
+   * @param y       the y-coordinate of the icon
+   */
+  public void renderIcon(final GuiGraphics context, final ItemStack stack, final int x, final int y) {
+    if (stack.isEmpty()) {
+      return;
+    }
+
+    final int guiScale = (int) Minecraft.getInstance().getWindow().getGuiScale();
+    if (guiScale != this.scale) {
+      this.flush(context);
+      this.invalidate();
+      this.scale = guiScale;
+    }
+
+    int slot = this.slots.getInt(stack);
+    if (slot == UNKNOWN) {
+      slot = this.allocate(context, stack);
+      this.slots.put(stack.copy(), slot);
+    }
+
+    if (slot == LIVE) {
+      this.liveDraws++;
+      context.renderFakeItem(stack, x, y);
+      return;
+    }
+
+    final float u = (float) (slot % SLOTS_PER_ROW) / SLOTS_PER_ROW;
+    final float v = (float) (slot / SLOTS_PER_ROW) / SLOTS_PER_ROW;
+    final float size = 1.0F / SLOTS_PER_ROW;
+    if ((this.queuedIcons + 1) * FLOATS_PER_ICON > this.queue.length) {
+      this.queue = Arrays.copyOf(this.queue, this.queue.length * 2);
+    }
+
+    // Framebuffer textures are stored bottom-up, hence the flipped V
+    final Matrix4f pose = context.pose().last().pose();
+    int offset = this.queuedIcons * FLOATS_PER_ICON;
+    offset = this.queueVertex(pose, offset, x, y, u, 1.0F - v);
+    offset = this.queueVertex(pose, offset, x, y + ICON_SIZE, u, 1.0F - v - size);
+    offset = this.queueVertex(pose, offset, x + ICON_SIZE, y + ICON_SIZE, u + size, 1.0F - v - size);
+    this.queueVertex(pose, offset, x + ICON_SIZE, y, u + size, 1.0F - v);
+    this.queuedIcons++;
+  }
+
+  /**
+   * Draws the icons queued since the last flush, in a single draw call. The
+   * calls batched by the context before the icons are drawn first.
+   *
+   * @param context the GUI graphics context the icons were queued with
+   */
+  public void flush(final GuiGraphics context) {
+    if (this.queuedIcons == 0) {
+      return;
+    }
+
+    context.flush();
+    final BufferBuilder builder = Offscreen.beginBlit(this.target.getColorTextureId());
+    for (int offset = 0; offset < this.queuedIcons * FLOATS_PER_ICON; offset += 5) {
+      builder.addVertex(this.queue[offset], this.queue[offset + 1], this.queue[offset + 2])
+          .setUv(this.queue[offset + 3], this.queue[offset + 4]);
+    }
+    this.queuedIcons = 0;
+    Offscreen.endBlit(builder);
+  }
+
+  /**
+   * Returns the number of icons rendered live since the game started. Callers
+   * caching their output compare it before and after painting to know whether
+   * the output contains icons changing over time.
+   *
+   * @return the number of icons rendered live
+   */
+  public int getLiveDraws() {
+    return this.liveDraws;
+  }
+
+  /**
+   * Releases the atlas, every icon is rendered again on its next draw.
+   */
+  public void invalidate() {
+    // The queued icons sample the released atlas, and are flushed beforehand
+    // when a context is at hand
+    this.queuedIcons = 0;
+    if (this.target != null) {
+      this.target.destroyBuffers();
+      this.target = null;
+    }
+    this.slots.clear();
+    this.nextSlot = 0;
+  }
+
+  // Renders the stack into the next free slot and returns it, or returns LIVE
+  // when the icon can not be cached
+  private int allocate(final GuiGraphics context, final ItemStack stack) {
+    if (this.nextSlot >= SLOTS_PER_ROW * SLOTS_PER_ROW || !isStatic(stack)) {
+      return LIVE;
+    }
+
+    final int slot = this.nextSlot++;
+    if (this.target == null) {
+      final int pixels = ATLAS_SIZE * this.scale;
+      this.target = new TextureTarget(pixels, pixels, true, Minecraft.ON_OSX);
+      Offscreen.beginRegionPaint(context, this.target, ATLAS_SIZE);
+    } else {
+      Offscreen.beginRegionRepaint(context, this.target, ATLAS_SIZE);
+    }
+    context.renderFakeItem(stack, (slot % SLOTS_PER_ROW) * ICON_SIZE, (slot / SLOTS_PER_ROW) * ICON_SIZE);
+    Offscreen.endRegionPaint(context);
+    return slot;
+  }
+
+  // Queues a vertex of an icon, transformed by the pose at the depth of the
+  // items, and returns the offset of the next vertex
+  private int queueVertex(final Matrix4f pose, final int offset, final int x, final int y, final float u,
+      final float v) {
+    pose.transformPosition((float) x, (float) y, ICON_DEPTH, this.vertex);
+    this.queue[offset] = this.vertex.x();
+    this.queue[offset + 1] = this.vertex.y();
+    this.queue[offset + 2] = this.vertex.z();
+    this.queue[offset + 3] = u;
+    this.queue[offset + 4] = v;
+    return offset + 5;
+  }
+
+  // Whether the icon of the stack looks the same on every frame
+  private static boolean isStatic(final ItemStack stack) {
+    if (stack.hasFoil()) {
+      return false;
+    }
+
+    final BakedModel model = Minecraft.getInstance().getItemRenderer().getItemModelShaper().getItemModel(stack);
+    if (model.isCustomRenderer() || model.getOverrides() != ItemOverrides.EMPTY
+        || isAnimated(model.getParticleIcon())) {
+      return false;
+    }
+
+    final RandomSource random = RandomSource.create();
+    for (final Direction direction : Direction.values()) {
+      if (hasAnimatedQuad(model, direction, random)) {
+        return false;
+      }
+    }
+    return !hasAnimatedQuad(model, null, random);
+  }
+
+  private static boolean hasAnimatedQuad(final BakedModel model, @Nullable final Direction direction,
+      final RandomSource random) {
+    for (final BakedQuad quad : model.getQuads(null, direction, random)) {
+      if (isAnimated(quad.getSprite())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Only animated sprites have a ticker, it is closed right away as it is only
+  // created to know whether the sprite is animated
+  private static boolean isAnimated(final TextureAtlasSprite sprite) {
+    final TextureAtlasSprite.Ticker ticker = sprite.createTicker();
+    if (ticker == null) {
+      return false;
+    }
+    ticker.close();
+    return true;
+  }
+}
@@ -0,0 +1,249 @@
+package codes.atomys.advr.render;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.Tesselator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.GameRenderer;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL11;
+
+/**
+ * Helpers to paint GUI draw calls into offscreen render targets and to draw
+ * those targets back on the screen.
+ *
+ * <p>
+ * Targets are painted with a premultiplied alpha channel, so they must be
+ * drawn back with {@link #blit}, which uses the matching blend function.
+ * </p>
+ *
+ * <p>
+ * Paints can be nested, such as a tile painting an icon into an atlas: ending
+ * a paint restores the target, scissor and projection of the enclosing one.
+ * The scissor is disabled while painting, as its rectangle is expressed in
+ * window coordinates and does not apply to the offscreen target. The icons
+ * queued by the {@link IconAtlas} are drawn before switching target, so they
+ * land in the target they were queued for.
+ * </p>
+ */
+final class Offscreen {
+  private static final Deque<PaintState> STACK = new ArrayDeque<>();
+
+  // Private constructor to prevent instantiation
+  private Offscreen() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Clears the given target and redirects the following draw calls to it.
+   *
+   * @param context the GUI graphics context, flushed before switching target
+   * @param target  the target to paint into
+   */
+  static void beginPaint(final GuiGraphics context, final RenderTarget target) {
+    // Clearing the target binds the main target afterwards
+    IconAtlas.getInstance().flush(context);
+    context.flush();
+    target.setClearColor(0.0F, 0.0F, 0.0F, 0.0F);
+    target.clear(Minecraft.ON_OSX);
+    beginRepaint(context, target);
+  }
+
+  /**
+   * Redirects the following draw calls to the given target, keeping what was
+   * already painted in it.
+   *
+   * @param context the GUI graphics context, flushed before switching target
+   * @param target  the target to paint into
+   */
+  static void beginRepaint(final GuiGraphics context, final RenderTarget target) {
+    IconAtlas.getInstance().flush(context);
+    context.flush();
+    final PaintState state = new PaintState(target, GL11.glIsEnabled(GL11.GL_SCISSOR_TEST));
+    if (state.scissor) {
+      GL11.glGetIntegerv(GL11.GL_SCISSOR_BOX, state.scissorBox);
+      RenderSystem.disableScissor();
+    }
+    STACK.push(state);
+
+    target.bindWrite(true);
+    premultipliedBlendFunc();
+  }
+
+  /**
+   * Redirects the following draw calls to a target covering a region of the
+   * GUI instead of the whole window.
+   * <p>
+   * The projection is replaced by one mapping {@code size} GUI pixels to the
+   * whole target, and the pose is reset, so the painter draws with the
+   * top-left corner of the region at {@code (0, 0)}. Must be followed by
+   * {@link #endRegionPaint(GuiGraphics)}.
+   * </p>
+   *
+   * @param context the GUI graphics context, flushed before switching target
+   * @param target  the target to paint into
+   * @param size    the size of the region in GUI pixels
+   */
+  static void beginRegionPaint(final GuiGraphics context, final RenderTarget target, final int size) {
+    beginPaint(context, target);
+    setRegionProjection(context, size);
+  }
+
+  /**
+   * Same as {@link #beginRegionPaint}, but keeps what was already painted in
+   * the target.
+   *
+   * @param context the GUI graphics context, flushed before switching target
+   * @param target  the target to paint into
+   * @param size    the size of the region in GUI pixels
+   */
+  static void beginRegionRepaint(final GuiGraphics context, final RenderTarget target, final int size) {
+    beginRepaint(context, target);
+    setRegionProjection(context, size);
+  }
+
+  private static void setRegionProjection(final GuiGraphics context, final int size) {
+    final PaintState state = STACK.peek();
+    state.projection = new Matrix4f(RenderSystem.getProjectionMatrix());
+    state.vertexSorting = RenderSystem.getVertexSorting();
+    RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(0.0F, (float) size, (float) size, 0.0F, 1000.0F,
+        21000.0F), VertexSorting.ORTHOGRAPHIC_Z);
+    context.pose().pushPose();
+    context.pose().setIdentity();
+  }
+
+  /**
+   * Ends a paint started with {@link #beginRegionPaint}.
+   *
+   * @param context the GUI graphics context
+   */
+  static void endRegionPaint(final GuiGraphics context) {
+    IconAtlas.getInstance().flush(context);
+    context.flush();
+    context.pose().popPose();
+    final PaintState state = STACK.peek();
+    RenderSystem.setProjectionMatrix(state.projection, state.vertexSorting);
+    endPaint(context);
+  }
+
+  /**
+   * Ends a paint started with {@link #beginPaint} and redirects the following
+   * draw calls back to the enclosing paint target, or to the main target.
+   *
+   * @param context the GUI graphics context
+   */
+  static void endPaint(final GuiGraphics context) {
+    IconAtlas.getInstance().flush(context);
+    context.flush();
+    final PaintState state = STACK.pop();
+    final PaintState enclosing = STACK.peek();
+    if (enclosing == null) {
+      RenderSystem.defaultBlendFunc();
+      Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+    } else {
+      enclosing.target.bindWrite(true);
+    }
+    if (state.scissor) {
+      RenderSystem.enableScissor(state.scissorBox[0], state.scissorBox[1], state.scissorBox[2],
+          state.scissorBox[3]);
+    }
+  }
+
+  /**
+   * Draws a region of a painted target as a textured quad.
+   *
+   * @param context   the GUI graphics context to draw on
+   * @param textureId the color texture of the target
+   * @param x1        the left of the quad
+   * @param y1        the top of the quad
+   * @param x2        the right of the quad
+   * @param y2        the bottom of the quad
+   * @param u1        the left of the texture region, from 0 to 1
+   * @param v1        the top of the texture region, from 0 to 1
+   * @param u2        the right of the texture region, from 0 to 1
+   * @param v2        the bottom of the texture region, from 0 to 1
+   */
+  static void blit(final GuiGraphics context, final int textureId, final float x1, final float y1, final float x2,
+      final float y2, final float u1, final float v1, final float u2, final float v2) {
+    final Matrix4f matrix = context.pose().last().pose();
+
+    // Framebuffer textures are stored bottom-up, hence the flipped V
+    final BufferBuilder builder = beginBlit(textureId);
+    builder.addVertex(matrix, x1, y1, 0.0F).setUv(u1, 1.0F - v1);
+    builder.addVertex(matrix, x1, y2, 0.0F).setUv(u1, 1.0F - v2);
+    builder.addVertex(matrix, x2, y2, 0.0F).setUv(u2, 1.0F - v2);
+    builder.addVertex(matrix, x2, y1, 0.0F).setUv(u2, 1.0F - v1);
+    endBlit(builder);
+  }
+
+  /**
+   * Starts a batch of textured quads sampling a painted target, drawn with
+   * {@link #endBlit(BufferBuilder)} in a single draw call.
+   * <p>
+   * The V coordinates of the vertices must be flipped, as framebuffer textures
+   * are stored bottom-up.
+   * </p>
+   *
+   * @param textureId the color texture of the target
+   * @return the buffer to add the {@code POSITION_TEX} vertices of the quads to
+   */
+  static BufferBuilder beginBlit(final int textureId) {
+    RenderSystem.setShader(GameRenderer::getPositionTexShader);
+    RenderSystem.setShaderTexture(0, textureId);
+    RenderSystem.enableBlend();
+    RenderSystem.blendFunc(GlStateManager.SourceFactor.ONE, GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+    return Tesselator.getInstance().begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
+  }
+
+  /**
+   * Draws the quads of a batch started with {@link #beginBlit(int)}, and
+   * restores the blend function of the current paint.
+   *
+   * @param builder the buffer holding the quads
+   */
+  static void endBlit(final BufferBuilder builder) {
+    BufferUploader.drawWithShader(builder.buildOrThrow());
+
+    if (STACK.isEmpty()) {
+      RenderSystem.defaultBlendFunc();
+    } else {
+      premultipliedBlendFunc();
+    }
+    RenderSystem.disableBlend();
+  }
+
+  // Keeps the alpha channel usable to composite the target afterwards
+  private static void premultipliedBlendFunc() {
+    RenderSystem.blendFuncSeparate(GlStateManager.SourceFactor.SRC_ALPHA,
+        GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA, GlStateManager.SourceFactor.ONE,
+        GlStateManager.DestFactor.ONE_MINUS_SRC_ALPHA);
+  }
+
+  /**
+   * The state to restore when a paint ends.
+   */
+  private static final class PaintState {
+    private final RenderTarget target;
+    private final boolean scissor;
+    private final int[] scissorBox = new int[4];
+    @Nullable
+    private Matrix4f projection;
+    @Nullable
+    private VertexSorting vertexSorting;
+
+    private PaintState(final RenderTarget target, final boolean scissor) {
+      this.target = target;
+      this.scissor = scissor;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package codes.atomys.advr.render;
+
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.platform.Window;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An offscreen render target caching the output of a screen layer.
+ *
+ * <p>
+ * The layer is painted into a window-sized framebuffer the first time it is
+ * rendered, and each time its key changes or the cache is invalidated. The
+ * rest of the time, the cached framebuffer is drawn on the screen as a single
+ * textured quad, without running any of the draw calls of the layer.
+ * </p>
+ *
+ * <p>
+ * The key is an array of values describing everything the output of the layer
+ * depends on (origin, size, content version...). Two keys are equal when the
+ * arrays have the same content.
+ * </p>
+ */
+public final class RenderLayerCache {
+  @Nullable
+  private TextureTarget target;
+  @Nullable
+  private int[] key;
+  private boolean valid;
+
+  /**
+   * Marks the cached output as outdated, the layer will be painted again on
+   * the next render.
+   */
+  public void invalidate() {
+    this.valid = false;
+  }
+
+  /**
+   * Renders the layer, from the cache when possible.
+   *
+   * @param context the GUI graphics context to render to
+   * @param key     the values the output of the layer depends on
+   * @param painter the draw calls of the layer
+   * @return {@code true} if the layer was painted again, {@code false} if the
+   *         cached output was reused
+   */
+  public boolean render(final GuiGraphics context, final int[] key, final Consumer<GuiGraphics> painter) {
+    final Minecraft client = Minecraft.getInstance();
+    final Window window = client.getWindow();
+    boolean painted = false;
+
+    if (this.target == null) {
+      this.target = new TextureTarget(window.getWidth(), window.getHeight(), true, Minecraft.ON_OSX);
+      this.valid = false;
+    } else if (this.target.width != window.getWidth() || this.target.height != window.getHeight()) {
+      this.target.resize(window.getWidth(), window.getHeight(), Minecraft.ON_OSX);
+      this.valid = false;
+    }
+
+    if (!this.valid || !Arrays.equals(this.key, key)) {
+      Offscreen.beginPaint(context, this.target);
+      painter.accept(context);
+      Offscreen.endPaint(context);
+      this.key = key.clone();
+      this.valid = true;
+      painted = true;
+    }
+
+    Offscreen.blit(context, this.target.getColorTextureId(), 0.0F, 0.0F, (float) window.getGuiScaledWidth(),
+        (float) window.getGuiScaledHeight(), 0.0F, 0.0F, 1.0F, 1.0F);
+    return painted;
+  }
+
+  /**
+   * Releases the framebuffer of this cache. The cache can still be used
+   * afterwards, the framebuffer is then created again.
+   */
+  public void close() {
+    if (this.target != null) {
+      this.target.destroyBuffers();
+      this.target = null;
+    }
+    this.valid = false;
+  }
+}
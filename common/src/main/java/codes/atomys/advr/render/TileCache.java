@@ -0,0 +1,181 @@
+package codes.atomys.advr.render;
+
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+
+/**
+ * A cache of fixed-size tiles covering a large canvas, such as the tree of an
+ * advancement tab.
+ *
+ * <p>
+ * The canvas is split in square tiles of {@link #TILE_SIZE} GUI pixels. A tile
+ * is painted into its own offscreen framebuffer the first time it becomes
+ * visible, then drawn back as a textured quad until it is invalidated. Tiles
+ * are kept in a least recently used pool bounded by a memory budget: when the
+ * budget is exceeded, the tiles not seen for the longest time are released.
+ * </p>
+ *
+ * <p>
+ * Panning the canvas therefore mostly re-draws cached tiles, and a change in a
+ * small part of the canvas only invalidates the tiles it overlaps.
+ * </p>
+ */
+public final class TileCache {
+  public static final int TILE_SIZE = 256;
+
+  // 4 bytes of color and 4 bytes of depth per pixel
+  private static final long BYTES_PER_PIXEL = 8L;
+
+  private final Map<Long, Tile> tiles = new LinkedHashMap<>(16, 0.75F, true);
+  private int scale;
+  private int paintedTiles;
+
+  /**
+   * Renders the visible part of the canvas from the cached tiles.
+   * <p>
+   * The tiles are drawn in the current pose, with the origin of the canvas at
+   * {@code (originX, originY)}. Missing or outdated tiles are painted first
+   * with the given painter. If the visible tiles do not fit in the memory
+   * budget, nothing is drawn and the caller is expected to render the canvas
+   * without the cache.
+   * </p>
+   *
+   * @param context     the GUI graphics context to draw on
+   * @param originX     the x-coordinate of the origin of the canvas
+   * @param originY     the y-coordinate of the origin of the canvas
+   * @param viewWidth   the width of the visible area
+   * @param viewHeight  the height of the visible area
+   * @param budgetBytes the maximal memory used by the tiles, in bytes
+   * @param painter     the painter used to paint a tile
+   * @return {@code true} if the visible area was drawn, {@code false} if it
+   *         does not fit in the budget
+   */
+  public boolean render(final GuiGraphics context, final int originX, final int originY, final int viewWidth,
+      final int viewHeight, final long budgetBytes, final Painter painter) {
+    final int guiScale = (int) Minecraft.getInstance().getWindow().getGuiScale();
+    if (guiScale != this.scale) {
+      this.close();
+      this.scale = guiScale;
+    }
+
+    this.paintedTiles = 0;
+    final int pixels = TILE_SIZE * this.scale;
+    final long maxTiles = budgetBytes / (pixels * (long) pixels * BYTES_PER_PIXEL);
+    final int minTileX = Math.floorDiv(-originX, TILE_SIZE);
+    final int maxTileX = Math.floorDiv(viewWidth - originX, TILE_SIZE);
+    final int minTileY = Math.floorDiv(-originY, TILE_SIZE);
+    final int maxTileY = Math.floorDiv(viewHeight - originY, TILE_SIZE);
+    if ((long) (maxTileX - minTileX + 1) * (maxTileY - minTileY + 1) > maxTiles) {
+      return false;
+    }
+
+    for (int tileX = minTileX; tileX <= maxTileX; tileX++) {
+      for (int tileY = minTileY; tileY <= maxTileY; tileY++) {
+        final Tile tile = this.tiles.computeIfAbsent(key(tileX, tileY), key -> new Tile(pixels));
+        if (!tile.valid) {
+          Offscreen.beginRegionPaint(context, tile.target, TILE_SIZE);
+          painter.paint(context, tileX * TILE_SIZE, tileY * TILE_SIZE, TILE_SIZE);
+          Offscreen.endRegionPaint(context);
+          tile.valid = true;
+          this.paintedTiles++;
+        }
+
+        final float x = (float) (originX + tileX * TILE_SIZE);
+        final float y = (float) (originY + tileY * TILE_SIZE);
+        Offscreen.blit(context, tile.target.getColorTextureId(), x, y, x + TILE_SIZE, y + TILE_SIZE, 0.0F, 0.0F,
+            1.0F, 1.0F);
+      }
+    }
+
+    this.evict(maxTiles);
+    return true;
+  }
+
+  /**
+   * Returns the number of tiles painted during the last render.
+   *
+   * @return the number of tiles painted during the last render
+   */
+  public int getPaintedTiles() {
+    return this.paintedTiles;
+  }
+
+  /**
+   * Invalidates the tiles overlapping the given rectangle of the canvas.
+   *
+   * @param minX the minimal x-coordinate of the rectangle
+   * @param minY the minimal y-coordinate of the rectangle
+   * @param maxX the maximal x-coordinate of the rectangle
+   * @param maxY the maximal y-coordinate of the rectangle
+   */
+  public void invalidate(final int minX, final int minY, final int maxX, final int maxY) {
+    for (int tileX = Math.floorDiv(minX, TILE_SIZE); tileX <= Math.floorDiv(maxX, TILE_SIZE); tileX++) {
+      for (int tileY = Math.floorDiv(minY, TILE_SIZE); tileY <= Math.floorDiv(maxY, TILE_SIZE); tileY++) {
+        final Tile tile = this.tiles.get(key(tileX, tileY));
+        if (tile != null) {
+          tile.valid = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Invalidates every tile of the canvas.
+   */
+  public void invalidateAll() {
+    this.tiles.values().forEach(tile -> tile.valid = false);
+  }
+
+  /**
+   * Releases the framebuffers of every tile.
+   */
+  public void close() {
+    this.tiles.values().forEach(tile -> tile.target.destroyBuffers());
+    this.tiles.clear();
+  }
+
+  private void evict(final long maxTiles) {
+    final Iterator<Tile> iterator = this.tiles.values().iterator();
+    while (this.tiles.size() > maxTiles && iterator.hasNext()) {
+      iterator.next().target.destroyBuffers();
+      iterator.remove();
+    }
+  }
+
+  private static long key(final int tileX, final int tileY) {
+    return ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Paints the content of a tile.
+   */
+  @FunctionalInterface
+  public interface Painter {
+    /**
+     * Paints the region of the canvas covered by a tile. The top-left corner
+     * of the region must be drawn at {@code (0, 0)}.
+     *
+     * @param context the GUI graphics context to draw on
+     * @param minX    the x-coordinate of the region in the canvas
+     * @param minY    the y-coordinate of the region in the canvas
+     * @param size    the size of the region
+     */
+    void paint(GuiGraphics context, int minX, int minY, int size);
+  }
+
+  /**
+   * A painted tile and its state.
+   */
+  private static final class Tile {
+    private final TextureTarget target;
+    private boolean valid;
+
+    private Tile(final int pixels) {
+      this.target = new TextureTarget(pixels, pixels, true, Minecraft.ON_OSX);
+    }
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rendering helpers for the advancement screen, such as retained geometry.
+ */
+package codes.atomys.advr.render;
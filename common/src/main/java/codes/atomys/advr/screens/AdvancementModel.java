@@ -0,0 +1,781 @@
+package codes.atomys.advr.screens;
+
+import codes.atomys.advr.TabPlacement;
+import codes.atomys.advr.config.ConfigSnapshot;
+import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.utils.TranslationIndex;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import net.minecraft.Util;
+import net.minecraft.advancements.AdvancementHolder;
+import net.minecraft.advancements.AdvancementNode;
+import net.minecraft.advancements.AdvancementProgress;
+import net.minecraft.advancements.DisplayInfo;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientAdvancements;
+import net.minecraft.locale.Language;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The client-side model of the advancement screen, holding the tabs and
+ * widgets built from the advancements of the current session.
+ *
+ * <p>
+ * The model listens to the {@link ClientAdvancements} of the connection for
+ * the whole session, not only while the screen is open. The advancements are
+ * therefore replayed only once, when the model is first bound, and the
+ * following changes are applied as deltas, batched once per client tick. The
+ * {@link AdvancementReloadedScreen} is a view over the model: opening it, or
+ * resizing the window, only attaches the existing tabs to the screen.
+ * </p>
+ *
+ * <p>
+ * The model is dropped and built again on the next open when the connection
+ * changes, when the resources are reloaded (which may change the
+ * translations) and when the order of the tabs or of the criteria, or the
+ * translation mode of the criteria, is changed in the configuration. After the join-time
+ * synchronization, the model is built ahead of time by
+ * {@link AdvancementWarmUp}.
+ * </p>
+ */
+public final class AdvancementModel implements ClientAdvancements.Listener {
+  @Nullable
+  private static AdvancementModel current;
+
+  private final Minecraft client;
+  private final ClientAdvancements handler;
+  private final Map<AdvancementHolder, AdvancementReloadedTab> tabs = Maps.newHashMap();
+  // The tabs in display order, the placement of the tabs after an insertion
+  // is updated on the next read, see #reindex
+  private final List<AdvancementReloadedTab> orderedTabs = Lists.newArrayList();
+  private final Map<AdvancementHolder, CollationKey> sortKeys = Maps.newHashMap();
+  private final Collator collator = createCollator();
+  private final SearchIndex<AdvancementNode> searchIndex = new SearchIndex<>();
+  private boolean reindexNeeded;
+  // The tabs are shown by pages of the tabs fitting both placements
+  private int tabsPerPage;
+  private int tabPage;
+  // Listener events waiting for the end of the client tick, see #flush
+  private final List<AdvancementNode> pendingRoots = Lists.newArrayList();
+  private final List<AdvancementNode> pendingTasks = Lists.newArrayList();
+  private final Map<AdvancementHolder, ProgressUpdate> pendingProgress = Maps.newLinkedHashMap();
+  private boolean clearPending;
+  private int pendingEvents;
+  private int lastBatchSize;
+  private long lastBatchNanos;
+  @Nullable
+  private AdvancementHolder selectedTab;
+  @Nullable
+  private AdvancementReloadedScreen view;
+  private boolean bound;
+
+  static {
+    Configuration.subscribe(AdvancementModel::onConfigurationChanged);
+  }
+
+  private AdvancementModel(final Minecraft client, final ClientAdvancements handler) {
+    this.client = client;
+    this.handler = handler;
+  }
+
+  /**
+   * Returns the model of the given advancement handler, building it if the
+   * handler changed since the last call or if the model was reset.
+   * <p>
+   * The model is registered as the listener of the handler. If another
+   * listener replaced it in the meantime, the model is cleared and registered
+   * again, so the handler replays its advancements. The queued listener
+   * events are applied before returning.
+   * </p>
+   *
+   * @param handler the advancement handler of the current connection
+   * @return the model of the handler
+   */
+  public static AdvancementModel get(final ClientAdvancements handler) {
+    final AdvancementModel model = prepare(handler);
+    model.bind();
+    model.flush();
+    return model;
+  }
+
+  /**
+   * Returns the model of the given advancement handler, building it if the
+   * handler changed since the last call or if the model was reset, without
+   * registering it as the listener of the handler.
+   * <p>
+   * This is used to fill the model ahead of time, see
+   * {@link AdvancementWarmUp}.
+   * </p>
+   *
+   * @param handler the advancement handler of the current connection
+   * @return the model of the handler
+   */
+  public static AdvancementModel prepare(final ClientAdvancements handler) {
+    if (current == null || current.handler != handler) {
+      reset();
+      current = new AdvancementModel(Minecraft.getInstance(), handler);
+    }
+    return current;
+  }
+
+  /**
+   * Whether the given model is still the current one, and was not reset.
+   *
+   * @param model the model to check
+   * @return true if the model is the current one, false otherwise
+   */
+  public static boolean isCurrent(final AdvancementModel model) {
+    return current == model;
+  }
+
+  /**
+   * Drops the current model and the cached tooltip layouts, they will be built
+   * again the next time the advancement screen is opened.
+   */
+  public static void reset() {
+    if (current != null) {
+      current.close();
+      current = null;
+    }
+    TooltipLayout.clearCache();
+  }
+
+  // Invalidates the parts of the current model built with a changed option:
+  // the tabs and widgets are built again when their order or the indexed
+  // criterion names changed, the tabs
+  // are placed again when the tab limits changed, and the view drops its cached
+  // geometry for the other options
+  private static void onConfigurationChanged(final ConfigSnapshot previous, final ConfigSnapshot next) {
+    if (current == null) {
+      return;
+    }
+
+    if (previous.isTabsAlphabeticOrder() != next.isTabsAlphabeticOrder()
+        || previous.isCriteriasAlphabeticOrder() != next.isCriteriasAlphabeticOrder()
+        || previous.getCriteriasTranslationMode() != next.getCriteriasTranslationMode()) {
+      reset();
+      return;
+    }
+
+    if (previous.getAboveWidgetLimit() != next.getAboveWidgetLimit()
+        || previous.getBelowWidgetLimit() != next.getBelowWidgetLimit()) {
+      current.reindexNeeded = true;
+    }
+    if (current.view != null) {
+      current.view.onConfigurationChanged(previous, next);
+    }
+  }
+
+  /**
+   * Whether this model is registered as the listener of its handler, in which
+   * case it is complete and up to date.
+   *
+   * @return true if this model listens to its handler, false otherwise
+   */
+  public boolean isBound() {
+    return this.bound && this.handler.listener == this;
+  }
+
+  /**
+   * Uses the given sort keys for the tabs whose key was not computed yet.
+   *
+   * @param keys the sort keys of the tabs, by root advancement, made by a
+   *             collator of the current language
+   */
+  public void seedSortKeys(final Map<AdvancementHolder, CollationKey> keys) {
+    keys.forEach(this.sortKeys::putIfAbsent);
+  }
+
+  /**
+   * Attaches the tabs of this model to the given screen, which becomes the
+   * view notified of the changes of the model.
+   *
+   * @param screen the screen displaying this model
+   */
+  public void attach(final AdvancementReloadedScreen screen) {
+    this.view = screen;
+    this.orderedTabs.forEach(tab -> tab.attach(screen));
+  }
+
+  /**
+   * Detaches the given screen from this model, if it is the current view.
+   *
+   * @param screen the screen no longer displaying this model
+   */
+  public void detach(final AdvancementReloadedScreen screen) {
+    if (this.view == screen) {
+      this.view = null;
+    }
+  }
+
+  /**
+   * Returns the tabs of this model, in display order.
+   *
+   * @return an unmodifiable view of the tabs
+   */
+  public Collection<AdvancementReloadedTab> getTabs() {
+    this.reindex();
+    return Collections.unmodifiableList(this.orderedTabs);
+  }
+
+  /**
+   * Returns the tabs of the current page of the tab strip, in display order.
+   * Only these tabs are positioned, drawn and hit-tested by the screen.
+   *
+   * @return an unmodifiable view of the tabs of the current page
+   */
+  public List<AdvancementReloadedTab> getVisibleTabs() {
+    this.reindex();
+    if (this.tabsPerPage == 0) {
+      return Collections.emptyList();
+    }
+
+    final int page = Math.min(this.tabPage, this.getTabPageCount() - 1);
+    final int start = page * this.tabsPerPage;
+    final int end = Math.min(start + this.tabsPerPage, this.orderedTabs.size());
+    return Collections.unmodifiableList(this.orderedTabs.subList(start, end));
+  }
+
+  /**
+   * Gets the current page of the tab strip.
+   *
+   * @return the index of the current page, starting from 0
+   */
+  public int getTabPage() {
+    return Math.min(this.tabPage, this.getTabPageCount() - 1);
+  }
+
+  /**
+   * Gets the number of pages of the tab strip, at least one.
+   *
+   * @return the number of pages
+   */
+  public int getTabPageCount() {
+    this.reindex();
+    if (this.tabsPerPage == 0) {
+      return 1;
+    }
+    return Math.max(1, (this.orderedTabs.size() + this.tabsPerPage - 1) / this.tabsPerPage);
+  }
+
+  /**
+   * Shows the given page of the tab strip, clamped to the existing pages.
+   *
+   * @param page the index of the page to show
+   */
+  public void setTabPage(final int page) {
+    final int clamped = Mth.clamp(page, 0, this.getTabPageCount() - 1);
+    if (clamped != this.getTabPage()) {
+      this.tabPage = clamped;
+      if (this.view != null) {
+        this.view.onTabsChanged();
+      }
+    }
+  }
+
+  /**
+   * Returns the tab whose root is the given advancement, or null if no such
+   * tab exists.
+   *
+   * @param root the root advancement of the tab
+   * @return the tab, or null if no such tab exists
+   */
+  @Nullable
+  public AdvancementReloadedTab getTab(@Nullable final AdvancementHolder root) {
+    this.reindex();
+    return root == null ? null : this.tabs.get(root);
+  }
+
+  /**
+   * Returns the tab selected by the advancement handler, or null if no tab is
+   * selected.
+   *
+   * @return the selected tab, or null
+   */
+  @Nullable
+  public AdvancementReloadedTab getSelectedTab() {
+    return this.getTab(this.selectedTab);
+  }
+
+  /**
+   * Returns the widget associated with the given advancement, or null if no such
+   * widget exists.
+   *
+   * @param advancement the advancement to get the widget for
+   * @return the widget associated with the given advancement, or null if no such
+   *         widget exists
+   */
+  @Nullable
+  public AdvancementReloadedWidget getAdvancementWidget(final AdvancementNode advancement) {
+    final AdvancementReloadedTab advancementTab = this.getTab(advancement.root().holder());
+    return advancementTab == null ? null : advancementTab.getWidget(advancement.holder());
+  }
+
+  /**
+   * Whether the given widget belongs to one of the tabs of this model.
+   *
+   * @param widget the widget to check
+   * @return true if the widget belongs to this model, false otherwise
+   */
+  public boolean contains(@Nullable final AdvancementReloadedWidget widget) {
+    return widget != null && this.tabs.get(widget.getTab().getRoot().holder()) == widget.getTab();
+  }
+
+  /**
+   * Searches the advancements of every tab by the words of their title,
+   * description and criteria, tolerating typos, see {@link SearchIndex}.
+   *
+   * @param query the text typed by the player
+   * @param limit the maximum number of results
+   * @return the matching advancements, best first
+   */
+  public List<AdvancementNode> search(final String query, final int limit) {
+    return this.searchIndex.search(query, limit);
+  }
+
+  /**
+   * Selects the tab of the given advancement, then its widget, built if the
+   * tab was never selected.
+   *
+   * @param advancement the advancement to show
+   * @return the widget of the advancement, or null if it has no widget
+   */
+  @Nullable
+  public AdvancementReloadedWidget reveal(final AdvancementNode advancement) {
+    final AdvancementReloadedTab advancementTab = this.getTab(advancement.root().holder());
+    if (advancementTab == null) {
+      return null;
+    }
+
+    this.handler.setSelectedTab(advancementTab.getRoot().holder(), true);
+    advancementTab.materialize();
+    return advancementTab.getWidget(advancement.holder());
+  }
+
+  /**
+   * Queues the addition of the tab of the given root advancement, see
+   * {@link #addRoot}.
+   *
+   * @param advancement the root advancement node to add
+   */
+  @Override
+  public void onAddAdvancementRoot(final AdvancementNode advancement) {
+    this.pendingRoots.add(advancement);
+    this.pendingEvents++;
+  }
+
+  /**
+   * This implementation does nothing.
+   *
+   * @param advancement the root advancement node to remove
+   */
+  @Override
+  public void onRemoveAdvancementRoot(final AdvancementNode advancement) {
+  }
+
+  /**
+   * Queues the addition of the given advancement to its tab, see
+   * {@link #addTask}.
+   *
+   * @param advancement the advancement to add
+   */
+  @Override
+  public void onAddAdvancementTask(final AdvancementNode advancement) {
+    this.pendingTasks.add(advancement);
+    this.pendingEvents++;
+  }
+
+  /**
+   * This implementation does nothing.
+   *
+   * @param advancement the advancement to remove
+   */
+  @Override
+  public void onRemoveAdvancementTask(final AdvancementNode advancement) {
+  }
+
+  /**
+   * Queues the given progress for the widget of the given advancement. Only
+   * the last progress queued for an advancement is applied.
+   *
+   * @param advancement the advancement with changed progress
+   * @param progress    the new progress
+   */
+  @Override
+  public void onUpdateAdvancementProgress(final AdvancementNode advancement, final AdvancementProgress progress) {
+    this.pendingProgress.put(advancement.holder(), new ProgressUpdate(advancement, progress));
+    this.pendingEvents++;
+  }
+
+  /**
+   * Applies the queued events, then remembers the tab selected by the
+   * advancement handler and selects it in the view.
+   * <p>
+   * The selection is applied right away, as it follows a click on a tab.
+   * </p>
+   *
+   * @param advancement the root of the selected tab, or null if no tab is
+   *                    selected
+   */
+  @Override
+  public void onSelectedTabChanged(@Nullable final AdvancementHolder advancement) {
+    this.flush();
+    this.selectedTab = advancement;
+    final AdvancementReloadedTab tab = this.getTab(advancement);
+    // Shows the page of the selected tab, which may be selected from elsewhere
+    if (tab != null && this.tabsPerPage > 0) {
+      this.setTabPage(this.orderedTabs.indexOf(tab) / this.tabsPerPage);
+    }
+    if (this.view != null) {
+      this.view.setSelectedTab(tab);
+    }
+  }
+
+  /**
+   * Drops the queued events and queues the removal of every tab of this
+   * model.
+   */
+  @Override
+  public void onAdvancementsCleared() {
+    this.discardPendingEvents();
+    this.clearPending = true;
+    this.pendingEvents++;
+  }
+
+  /**
+   * Applies the listener events queued since the last call, as one batch.
+   * <p>
+   * A large advancements packet, such as the synchronization on join or a
+   * {@code /reload}, notifies the listener once per advancement. The events
+   * are applied together at the end of the client tick instead: the tabs
+   * first, then the advancements, then the last progress of each
+   * advancement. The size of the batch and the time taken to apply it are
+   * recorded, see {@link #getLastBatchSize()}.
+   * </p>
+   */
+  public void flush() {
+    if (this.pendingEvents == 0) {
+      return;
+    }
+
+    final long start = Util.getNanos();
+    if (this.clearPending) {
+      this.clear();
+      if (this.view != null) {
+        this.view.onAdvancementsCleared();
+      }
+    }
+    for (final AdvancementNode root : this.pendingRoots) {
+      this.addRoot(root);
+    }
+    for (final AdvancementNode task : this.pendingTasks) {
+      this.addTask(task);
+    }
+    for (final ProgressUpdate update : this.pendingProgress.values()) {
+      this.setProgress(update.advancement, update.progress);
+    }
+
+    this.lastBatchSize = this.pendingEvents;
+    this.lastBatchNanos = Util.getNanos() - start;
+    this.discardPendingEvents();
+  }
+
+  /**
+   * Applies the queued events of the current model, called at the end of each
+   * client tick.
+   */
+  public static void tick() {
+    if (current != null) {
+      current.flush();
+    }
+  }
+
+  /**
+   * Gets the number of listener events applied by the last batch, see
+   * {@link #flush()}.
+   *
+   * @return the number of events of the last batch
+   */
+  public int getLastBatchSize() {
+    return this.lastBatchSize;
+  }
+
+  /**
+   * Gets the time taken to apply the last batch of listener events.
+   *
+   * @return the duration of the last batch, in nanoseconds
+   */
+  public long getLastBatchNanos() {
+    return this.lastBatchNanos;
+  }
+
+  /**
+   * Adds a new tab for the given root advancement, if the advancement has a
+   * display information and no tab exists for it yet.
+   * <p>
+   * The tab is inserted at its place in the display order, see
+   * {@link #insertTab}. The placement of the tabs is updated once the batch of
+   * additions is done, the next time the tabs are read.
+   * </p>
+   *
+   * @param advancement the root advancement node to add
+   */
+  void addRoot(final AdvancementNode advancement) {
+    if (this.tabs.containsKey(advancement.holder())) {
+      return;
+    }
+
+    final AdvancementReloadedTab advancementTab = AdvancementReloadedTab.create(this.client, advancement);
+    if (advancementTab != null) {
+      this.tabs.put(advancement.holder(), advancementTab);
+      this.index(advancement);
+      this.insertTab(advancementTab);
+      if (this.view != null) {
+        advancementTab.attach(this.view);
+        this.view.onTabsChanged();
+      }
+    }
+  }
+
+  /**
+   * Adds a new advancement to the tab associated with its root advancement, if
+   * such a tab exists and does not contain the advancement yet. The widget of
+   * the advancement is only built once the tab is first selected.
+   *
+   * @param advancement the advancement to add
+   */
+  void addTask(final AdvancementNode advancement) {
+    final AdvancementReloadedTab advancementTab = this.getTab(advancement.root().holder());
+    if (advancementTab != null && !advancementTab.contains(advancement.holder())) {
+      advancementTab.addAdvancement(advancement);
+      this.index(advancement);
+    }
+  }
+
+  // Sets the given progress on the widget of the given advancement, if such a
+  // widget exists, and notifies the view. The tabs not selected yet keep the
+  // progress until their widgets are built, but count the completion right
+  // away, so it is known for every tab.
+  private void setProgress(final AdvancementNode advancement, final AdvancementProgress progress) {
+    final AdvancementReloadedTab advancementTab = this.getTab(advancement.root().holder());
+    if (advancementTab != null && advancementTab.getCompletion().setDone(advancement.holder(), progress.isDone())) {
+      advancementTab.onCompletionChanged(advancement.holder());
+      if (this.view != null) {
+        this.view.onCompletionChanged(advancementTab);
+      }
+    }
+    if (advancementTab != null && !advancementTab.isMaterialized()) {
+      advancementTab.deferProgress(advancement.holder(), progress);
+      return;
+    }
+
+    final AdvancementReloadedWidget advancementWidget = this.getAdvancementWidget(advancement);
+    if (advancementWidget != null) {
+      advancementWidget.setProgress(progress);
+      if (this.view != null) {
+        this.view.onWidgetProgress(advancementWidget);
+      }
+    }
+  }
+
+  // Indexes the title, the description and the criteria of the given
+  // advancement for the search. The criteria are indexed by their path, and by
+  // the name of the game object of the same id when the translations know it.
+  // Their displayed names are not resolved here, as that reports every
+  // untranslated criterion long before it is shown.
+  private void index(final AdvancementNode advancement) {
+    final DisplayInfo display = advancement.advancement().display().orElse(null);
+    if (display == null) {
+      return;
+    }
+
+    final List<String> criteria = Lists.newArrayList();
+    for (final String criterion : advancement.advancement().requirements().names()) {
+      final int separator = criterion.indexOf(':');
+      final String namespace = separator < 0 ? "minecraft" : criterion.substring(0, separator);
+      final String path = criterion.substring(separator + 1);
+      criteria.add(path);
+
+      final String translationKey = TranslationIndex.find(namespace, path);
+      if (translationKey != null) {
+        criteria.add(Language.getInstance().getOrDefault(translationKey));
+      }
+    }
+    this.searchIndex.add(advancement, display.getTitle().getString(), display.getDescription().getString(),
+        criteria);
+  }
+
+  private void discardPendingEvents() {
+    this.pendingRoots.clear();
+    this.pendingTasks.clear();
+    this.pendingProgress.clear();
+    this.clearPending = false;
+    this.pendingEvents = 0;
+  }
+
+  // Registers this model as the listener of the handler, the handler then
+  // replays every advancement. Adds are idempotent, so the part of the model
+  // built ahead of time is kept. If another listener replaced this model, the
+  // model may have missed changes and is cleared first.
+  private void bind() {
+    if (this.handler.listener == this) {
+      return;
+    }
+
+    if (this.bound) {
+      this.discardPendingEvents();
+      this.clear();
+    }
+    this.bound = true;
+    this.handler.setListener(this);
+  }
+
+  private void clear() {
+    this.orderedTabs.forEach(AdvancementReloadedTab::releaseRenderCache);
+    this.tabs.clear();
+    this.orderedTabs.clear();
+    this.sortKeys.clear();
+    this.searchIndex.clear();
+    this.reindexNeeded = false;
+    this.tabPage = 0;
+    this.selectedTab = null;
+  }
+
+  private void close() {
+    this.discardPendingEvents();
+    this.clear();
+    if (this.handler.listener == this) {
+      this.handler.setListener(null);
+    }
+    this.view = null;
+  }
+
+  /**
+   * Returns the key used to sort the tab of the given root advancement, which
+   * is the string representation of its title.
+   * <p>
+   * This only reads the translations, so it can be called from a worker
+   * thread.
+   * </p>
+   *
+   * @param root the root advancement of the tab
+   * @return the sort key of the tab
+   */
+  static String sortKey(final AdvancementNode root) {
+    return root.advancement().name().orElse(Component.literal(root.toString())).getString();
+  }
+
+  /**
+   * Returns the title of the tab of the given advancement, which is the title
+   * of its root advancement.
+   *
+   * @param advancement the advancement
+   * @return the title of the tab of the advancement
+   */
+  static Component tabTitle(final AdvancementNode advancement) {
+    return advancement.root().advancement().name().orElse(Component.literal(advancement.root().toString()));
+  }
+
+  /**
+   * Creates a collator sorting the tab titles in the current language.
+   * <p>
+   * A collator is not thread-safe, each thread sorting tabs uses its own.
+   * </p>
+   *
+   * @return a new collator for the current language
+   */
+  static Collator createCollator() {
+    final String language = Objects.requireNonNull(Minecraft.getInstance().getLanguageManager().getSelected());
+    return Collator.getInstance(Locale.forLanguageTag(language.replace('_', '-')));
+  }
+
+  /**
+   * Inserts the given tab in the display order. If the configuration value
+   * {@link ConfigSnapshot#isTabsAlphabeticOrder()} is set to {@code true}, the tab
+   * is inserted after the tabs whose title collates before or equal to its
+   * own, found with a binary search on the precomputed collation keys.
+   * Otherwise, the tab is added at the end.
+   *
+   * @param tab the tab to insert
+   */
+  private void insertTab(final AdvancementReloadedTab tab) {
+    this.reindexNeeded = true;
+    if (!Configuration.get().isTabsAlphabeticOrder()) {
+      this.orderedTabs.add(tab);
+      return;
+    }
+
+    final CollationKey key = this.getSortKey(tab);
+    int low = 0;
+    int high = this.orderedTabs.size();
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (this.getSortKey(this.orderedTabs.get(middle)).compareTo(key) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    this.orderedTabs.add(low, tab);
+  }
+
+  private CollationKey getSortKey(final AdvancementReloadedTab tab) {
+    return this.sortKeys.computeIfAbsent(tab.getRoot().holder(),
+        holder -> this.collator.getCollationKey(sortKey(tab.getRoot())));
+  }
+
+  // Sets the placement of each tab from its position in its page of the
+  // display order, after some tabs were inserted or the limits changed
+  private void reindex() {
+    if (!this.reindexNeeded) {
+      return;
+    }
+
+    this.reindexNeeded = false;
+    final ConfigSnapshot config = Configuration.get();
+    final TabPlacement[] placements = TabPlacement.values();
+    this.tabsPerPage = 0;
+    for (final TabPlacement placement : placements) {
+      this.tabsPerPage += placement.getTabLimit(config);
+    }
+    if (this.tabsPerPage == 0) {
+      return;
+    }
+
+    for (int position = 0; position < this.orderedTabs.size(); position++) {
+      int placement = 0;
+      int index = position % this.tabsPerPage;
+      while (index >= placements[placement].getTabLimit(config) && placement < placements.length - 1) {
+        index -= placements[placement].getTabLimit(config);
+        placement++;
+      }
+
+      // The index is relative to the placement, it determines the position of
+      // the tab in its row
+      this.orderedTabs.get(position).setPlacement(placements[placement], index);
+    }
+  }
+
+  /**
+   * A progress update waiting to be applied.
+   */
+  private static final class ProgressUpdate {
+    private final AdvancementNode advancement;
+    private final AdvancementProgress progress;
+
+    private ProgressUpdate(final AdvancementNode advancement, final AdvancementProgress progress) {
+      this.advancement = advancement;
+      this.progress = progress;
+    }
+  }
+}
@@ -3,26 +3,32 @@ package codes.atomys.advr.screens;
 import codes.atomys.advr.ClickableRegion;
 import codes.atomys.advr.ReloadedCriterionProgress;
 import codes.atomys.advr.TabPlacement;
+import codes.atomys.advr.config.ConfigSnapshot;
 import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.render.IconAtlas;
+import codes.atomys.advr.render.RenderLayerCache;
 import codes.atomys.advr.utils.Memory;
-import com.google.common.collect.Maps;
+import codes.atomys.advr.utils.MissingTranslations;
 import com.mojang.blaze3d.platform.InputConstants;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import net.minecraft.advancements.AdvancementHolder;
+import java.util.function.Consumer;
+import net.minecraft.ChatFormatting;
 import net.minecraft.advancements.AdvancementNode;
-import net.minecraft.advancements.AdvancementProgress;
 import net.minecraft.advancements.DisplayInfo;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.components.toasts.SystemToast;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.multiplayer.ClientAdvancements;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.locale.Language;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.protocol.game.ServerboundSeenAdvancementsPacket;
 import net.minecraft.resources.ResourceLocation;
@@ -33,8 +39,8 @@ import org.jetbrains.annotations.Nullable;
 /**
  * The AdvancementReloadedScreen class represents a custom screen for displaying
  * advancements in a Minecraft client.
- * It extends the Screen class and implements the ClientAdvancements.Listener
- * interface to handle advancement-related events.
+ * It extends the Screen class and displays the tabs of the
+ * {@link AdvancementModel}, which handles the advancement-related events.
  *
  * <p>
  * This screen provides a user interface for viewing and interacting with
@@ -51,7 +57,7 @@ import org.jetbrains.annotations.Nullable;
  * - Manages the state of selected tabs and widgets.
  * </p>
  */
-public class AdvancementReloadedScreen extends Screen implements ClientAdvancements.Listener {
+public class AdvancementReloadedScreen extends Screen {
 
   private static final ResourceLocation criteriasSeparator = ResourceLocation
       .parse("advancements_reloaded:textures/gui/inworld_right_separator.png");
@@ -59,19 +65,39 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
   private static final ResourceLocation SCROLLER_BACKGROUND_TEXTURE = ResourceLocation
       .withDefaultNamespace("widget/scroller_background");
 
+  private static final ResourceLocation PAGE_FORWARD_SPRITE = ResourceLocation
+      .withDefaultNamespace("recipe_book/page_forward");
+  private static final ResourceLocation PAGE_BACKWARD_SPRITE = ResourceLocation
+      .withDefaultNamespace("recipe_book/page_backward");
+  private static final int PAGE_BUTTON_WIDTH = 12;
+  private static final int PAGE_BUTTON_HEIGHT = 17;
+  private static final int SEARCH_BOX_WIDTH = 120;
+  private static final int SEARCH_RESULTS_WIDTH = 200;
+  private static final int SEARCH_RESULT_HEIGHT = 12;
+  private static final int SEARCH_RESULTS = 8;
+  private static final Component SEARCH_HINT = Component.translatable("text.advancements_reloaded.search.hint");
+
   private static final Component SAD_LABEL_TEXT = Component.translatable("advancements.sad_label");
   private static final Component EMPTY_TEXT = Component.translatable("advancements.empty");
   @Nullable
   private final Screen parent;
   private final ClientAdvancements advancementHandler;
-  private Map<AdvancementHolder, AdvancementReloadedTab> tabs = Maps
-      .<AdvancementHolder, AdvancementReloadedTab>newLinkedHashMap();
+  private AdvancementModel model;
   @Nullable
   private Optional<AdvancementReloadedTab> selectedTab;
   private AdvancementReloadedWidget selectedWidget;
   private List<ClickableRegion> clickableRegions;
   private int scrollOffset = 0;
-  private int contentHeight = 0;
+  @Nullable
+  private SidebarLayout sidebarLayout;
+  private final RenderLayerCache sidebarCache = new RenderLayerCache();
+  private final RenderLayerCache windowCache = new RenderLayerCache();
+  private final EnumSet<Layer> dirtyLayers = EnumSet.allOf(Layer.class);
+  private final EnumSet<Layer> animatedLayers = EnumSet.noneOf(Layer.class);
+  private int redrawnLayers;
+  @Nullable
+  private EditBox searchBox;
+  private List<AdvancementNode> searchResults = List.of();
 
   /**
    * Constructs a new AdvancementReloadedScreen with the specified
@@ -98,25 +124,141 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
 
   /**
    * Initializes the screen. This method is called when the screen is first
-   * created. It clears the tabs and resets the selected tab to null. It also
-   * sets the listener for the ClientAdvancements handler and sets the selected
-   * tab to the first tab in the list if the selected tab is null. Finally, it
-   * sets the clickable regions for the screen.
+   * created and each time the window is resized. It attaches the screen to the
+   * {@link AdvancementModel} of the advancement handler, which keeps the tabs
+   * for the whole session, and restores the selected tab and widget. If no tab
+   * is selected, the first tab in the list is selected. Finally, it sets the
+   * clickable regions for the screen.
    */
   @Override
   protected void init() {
-    this.tabs.clear();
-    this.selectedTab = null;
-    this.selectedWidget = Memory.getWidget();
-    this.advancementHandler.setListener(this);
-    if (this.selectedTab.isEmpty() && !this.tabs.isEmpty()) {
-      final AdvancementReloadedTab advancementTab = this.tabs.values().iterator().next();
+    this.releaseRenderCaches();
+    this.sidebarLayout = null;
+    this.markDirty(Layer.values());
+    this.model = AdvancementModel.get(this.advancementHandler);
+    this.model.attach(this);
+    this.selectedTab = Optional.ofNullable(this.model.getSelectedTab());
+    this.selectedWidget = this.model.contains(Memory.getWidget()) ? Memory.getWidget() : null;
+    if (this.selectedTab.isEmpty() && !this.model.getTabs().isEmpty()) {
+      final AdvancementReloadedTab advancementTab = this.model.getTabs().iterator().next();
       this.advancementHandler.setSelectedTab(advancementTab.getRoot().holder(), true);
     } else {
       this.selectedTab.ifPresent(tab -> this.advancementHandler.setSelectedTab(tab.getRoot().holder(), true));
     }
 
     this.setClickableRegions();
+    this.initSearchBox();
+  }
+
+  /**
+   * Creates the search box on the right of the header, keeping the query of
+   * the previous search box, and searches it again in the current model.
+   */
+  private void initSearchBox() {
+    final String query = this.searchBox == null ? "" : this.searchBox.getValue();
+    if (this.searchBox != null) {
+      this.removeWidget(this.searchBox);
+    }
+
+    this.searchBox = new EditBox(this.font, width - SEARCH_BOX_WIDTH - 4, 4, SEARCH_BOX_WIDTH, 14, SEARCH_HINT);
+    this.searchBox.setHint(SEARCH_HINT);
+    this.searchBox.setValue(query);
+    this.searchBox.setResponder(this::search);
+    this.addWidget(this.searchBox);
+    this.search(query);
+  }
+
+  /**
+   * Searches the advancements of every tab for the given query, see
+   * {@link AdvancementModel#search(String, int)}.
+   *
+   * @param query the text of the search box
+   */
+  private void search(final String query) {
+    this.searchResults = query.isBlank() ? List.of() : this.model.search(query, SEARCH_RESULTS);
+  }
+
+  /**
+   * Whether the results of the search are displayed below the search box.
+   *
+   * @return true if the search box is focused and has results
+   */
+  private boolean isSearchOpen() {
+    return this.searchBox != null && this.searchBox.isFocused() && !this.searchResults.isEmpty();
+  }
+
+  /**
+   * Returns the index of the search result under the mouse, or -1 if the
+   * mouse is not on a result.
+   *
+   * @param mouseX the x-coordinate of the mouse
+   * @param mouseY the y-coordinate of the mouse
+   * @return the index of the result, or -1
+   */
+  private int getSearchResultAt(final double mouseX, final double mouseY) {
+    final int x = width - SEARCH_RESULTS_WIDTH - 4;
+    final int y = this.searchBox.getY() + this.searchBox.getHeight() + 1;
+    if (mouseX < x || mouseX >= x + SEARCH_RESULTS_WIDTH || mouseY < y) {
+      return -1;
+    }
+
+    final int index = (int) (mouseY - y) / SEARCH_RESULT_HEIGHT;
+    return index < this.searchResults.size() ? index : -1;
+  }
+
+  /**
+   * Shows the given advancement: its tab is selected, the tree is panned to
+   * its widget and the widget is selected, which opens the sidebar.
+   *
+   * @param advancement the advancement to show
+   */
+  private void reveal(final AdvancementNode advancement) {
+    this.setFocused(null);
+    final AdvancementReloadedWidget widget = this.model.reveal(advancement);
+    if (widget != null) {
+      this.setSelectedWidget(widget);
+      widget.getTab().centerOn(widget);
+    }
+  }
+
+  /**
+   * Draws the search box, and the results of the search below it while the
+   * search box is focused. The result under the mouse is highlighted.
+   *
+   * @param context the graphics context to draw on
+   * @param mouseX  the x-coordinate of the mouse
+   * @param mouseY  the y-coordinate of the mouse
+   * @param delta   the time elapsed since the last frame
+   */
+  private void drawSearch(final GuiGraphics context, final int mouseX, final int mouseY, final float delta) {
+    context.pose().pushPose();
+    context.pose().translate(0.0F, 0.0F, 450.0F);
+    this.searchBox.render(context, mouseX, mouseY, delta);
+
+    if (this.isSearchOpen()) {
+      final int x = width - SEARCH_RESULTS_WIDTH - 4;
+      final int y = this.searchBox.getY() + this.searchBox.getHeight() + 1;
+      final int hovered = this.getSearchResultAt(mouseX, mouseY);
+      context.fill(x, y, x + SEARCH_RESULTS_WIDTH, y + this.searchResults.size() * SEARCH_RESULT_HEIGHT,
+          0xE0000000);
+      for (int i = 0; i < this.searchResults.size(); i++) {
+        final AdvancementNode advancement = this.searchResults.get(i);
+        final int rowY = y + i * SEARCH_RESULT_HEIGHT;
+        if (i == hovered) {
+          context.fill(x, rowY, x + SEARCH_RESULTS_WIDTH, rowY + SEARCH_RESULT_HEIGHT, 0x40FFFFFF);
+        }
+
+        // The title of the advancement, then the title of its tab
+        final Component title = Component.empty()
+            .append(advancement.advancement().name().orElse(Component.literal(advancement.holder().id().toString())))
+            .append(Component.literal(" - ").append(AdvancementModel.tabTitle(advancement))
+                .withStyle(ChatFormatting.GRAY));
+        context.drawString(this.font,
+            Language.getInstance().getVisualOrder(this.font.substrByWidth(title, SEARCH_RESULTS_WIDTH - 8)),
+            x + 4, rowY + 2, CommonColors.WHITE);
+      }
+    }
+    context.pose().popPose();
   }
 
   /**
@@ -134,27 +276,74 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * right side of the screen where the scrollbar for the advancement
    * criteria is displayed. This region is only visible if the
    * configuration option {@link Configuration} is true.</li>
+   * <li>The advancement tabs regions are the header and the footer, where the
+   * tabs are displayed. Scrolling on them shows the other pages of tabs.</li>
    * </ul>
    */
   private void setClickableRegions() {
     this.clickableRegions = new ArrayList<ClickableRegion>();
     this.clickableRegions.add(
-        ClickableRegion.create("advancement_tree", 0, Configuration.headerHeight + 1,
-            width - (this.hasVisibleSidebar() ? Configuration.criteriasWidth : 0),
-            height - Configuration.headerHeight
-                - Configuration.footerHeight));
+        ClickableRegion.create("advancement_tree", 0, Configuration.get().getHeaderHeight() + 1,
+            width - (this.hasVisibleSidebar() ? Configuration.get().getCriteriasWidth() : 0),
+            height - Configuration.get().getHeaderHeight()
+                - Configuration.get().getFooterHeight()));
+
+    // The header and the footer hold the tab strip, scrolled by pages
+    this.clickableRegions.add(
+        ClickableRegion.create("advancement_tabs", 0, 0, width, Configuration.get().getHeaderHeight()));
+    this.clickableRegions.add(
+        ClickableRegion.create("advancement_tabs", 0, height - Configuration.get().getFooterHeight(), width,
+            Configuration.get().getFooterHeight()));
 
     if (this.hasVisibleSidebar()) {
       this.clickableRegions.add(
-          ClickableRegion.create("advancement_criterias", width - Configuration.criteriasWidth,
-              Configuration.headerHeight + 1,
-              Configuration.criteriasWidth - 6,
-              height - Configuration.headerHeight
-                  - Configuration.footerHeight));
+          ClickableRegion.create("advancement_criterias", width - Configuration.get().getCriteriasWidth(),
+              Configuration.get().getHeaderHeight() + 1,
+              Configuration.get().getCriteriasWidth() - 6,
+              height - Configuration.get().getHeaderHeight()
+                  - Configuration.get().getFooterHeight()));
       this.clickableRegions.add(
           ClickableRegion.create("advancement_criterias_scrollbar", width - 6,
-              Configuration.headerHeight + 1, 6,
-              height - Configuration.footerHeight));
+              Configuration.get().getHeaderHeight() + 1, 6,
+              height - Configuration.get().getFooterHeight()));
+    }
+  }
+
+  /**
+   * Releases the offscreen framebuffers used by the render caches of the tabs
+   * and of the screen layers.
+   */
+  private void releaseRenderCaches() {
+    if (this.model != null) {
+      this.model.getTabs().forEach(AdvancementReloadedTab::releaseRenderCache);
+    }
+    this.sidebarCache.close();
+    this.windowCache.close();
+  }
+
+  /**
+   * Marks the given layers as outdated, they are painted again on the next
+   * frame when the render cache is enabled.
+   *
+   * @param layers the layers to mark as outdated
+   */
+  private void markDirty(final Layer... layers) {
+    for (final Layer layer : layers) {
+      this.dirtyLayers.add(layer);
+    }
+  }
+
+  /**
+   * Marks the layers showing icons changing over time as outdated, so they are
+   * animated at the tick rate even when they are cached. In the tree, only the
+   * widgets showing such icons are painted again.
+   */
+  @Override
+  public void tick() {
+    super.tick();
+    this.dirtyLayers.addAll(this.animatedLayers);
+    if (this.selectedTab != null) {
+      this.selectedTab.ifPresent(AdvancementReloadedTab::invalidateAnimatedWidgets);
     }
   }
 
@@ -170,12 +359,17 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
 
   /**
    * Removes the screen. This method is called when the screen is removed. It
-   * sets the listener of the advancement handler to null and sends a packet to
-   * the server to notify that the screen was closed.
+   * detaches the screen from the advancement model, which keeps listening to
+   * the advancement handler, and sends a packet to the server to notify that
+   * the screen was closed.
    */
   @Override
   public void removed() {
-    this.advancementHandler.setListener(null);
+    this.releaseRenderCaches();
+    MissingTranslations.writeIfChanged();
+    if (this.model != null) {
+      this.model.detach(this);
+    }
     final ClientPacketListener clientPlayNetworkHandler = this.minecraft.getConnection();
     if (clientPlayNetworkHandler != null) {
       clientPlayNetworkHandler.send(ServerboundSeenAdvancementsPacket.closedScreen());
@@ -190,9 +384,11 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    *
    * <p>
    * If the left mouse button is pressed, the method sets the clicked flag of the
-   * clickable regions that were clicked. It then finds the tab that was clicked,
-   * and sets the selected tab to the clicked tab. It also finds the widget that
-   * was clicked and sets the selected widget to the clicked widget.
+   * clickable regions that were clicked. It then finds the widget that was
+   * clicked and sets the selected widget to the clicked widget. It also finds
+   * the tab of the current page that was clicked, and sets the selected tab to
+   * the clicked tab, or shows the previous or next page of tabs if a page
+   * button was clicked.
    * </p>
    *
    * <p>
@@ -200,6 +396,11 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * advancement criteria to the position of the mouse cursor.
    * </p>
    *
+   * <p>
+   * A click on a search result shows its advancement, a click anywhere else
+   * than the search box closes the search results.
+   * </p>
+   *
    * @param mouseX the x-coordinate of the mouse cursor in the screen
    * @param mouseY the y-coordinate of the mouse cursor in the screen
    * @param button the mouse button that was pressed
@@ -207,28 +408,49 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    */
   @Override
   public boolean mouseClicked(final double mouseX, final double mouseY, final int button) {
+    if (button == 0 && this.isSearchOpen()) {
+      final int result = this.getSearchResultAt(mouseX, mouseY);
+      if (result >= 0) {
+        this.reveal(this.searchResults.get(result));
+        return true;
+      }
+    }
+    if (this.searchBox != null && this.searchBox.isMouseOver(mouseX, mouseY)) {
+      return super.mouseClicked(mouseX, mouseY, button);
+    }
+    this.setFocused(null);
+
     if (button == 0) {
       ClickableRegion.foundRegions(this.clickableRegions, mouseX, mouseY).forEach(region -> {
         region.setClicked(true);
       });
 
       final int i = 0;
-      final int j = Configuration.headerHeight;
+      final int j = Configuration.get().getHeaderHeight();
 
-      for (final AdvancementReloadedTab advancementTab : this.tabs.values()) {
-        if (advancementTab == this.selectedTab.orElse(null)) {
-          final AdvancementReloadedWidget clickedWidget = advancementTab.clickOnWidget(i, j, mouseX, mouseY);
-          if (clickedWidget != null) {
-            this.setSelectedWidget(clickedWidget);
-          }
+      if (this.selectedTab.isPresent()) {
+        final AdvancementReloadedWidget clickedWidget = this.selectedTab.get().clickOnWidget(i, j, mouseX, mouseY);
+        if (clickedWidget != null) {
+          this.setSelectedWidget(clickedWidget);
         }
+      }
 
+      // Only the tabs of the current page can be clicked
+      for (final AdvancementReloadedTab advancementTab : this.model.getVisibleTabs()) {
         if (advancementTab.isClickOnTab(i, j, mouseX, mouseY)) {
           this.advancementHandler.setSelectedTab(advancementTab.getRoot().holder(), true);
           break;
         }
       }
 
+      if (this.hasTabPages()) {
+        if (this.isOnPageButton(this.getPageButtonX(false), mouseX, mouseY)) {
+          this.model.setTabPage(this.model.getTabPage() - 1);
+        } else if (this.isOnPageButton(this.getPageButtonX(true), mouseX, mouseY)) {
+          this.model.setTabPage(this.model.getTabPage() + 1);
+        }
+      }
+
       if (this.needScrollbarOnCriterias()) {
         ClickableRegion
             .findRegion(this.clickableRegions,
@@ -257,15 +479,15 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    */
   private void moveScrollbarTo(final double mouseY) {
     // Calculate the viewable height (excluding header and footer)
-    final int viewableHeight = height - Configuration.headerHeight
-        - Configuration.footerHeight;
+    final int viewableHeight = height - Configuration.get().getHeaderHeight()
+        - Configuration.get().getFooterHeight();
 
     // Calculate the start and end positions of the scrollbar container
-    final int scrollbarStart = Configuration.headerHeight + 1;
-    final int scrollbarEnd = height - Configuration.footerHeight - 1;
+    final int scrollbarStart = Configuration.get().getHeaderHeight() + 1;
+    final int scrollbarEnd = height - Configuration.get().getFooterHeight() - 1;
 
     // Calculate the scroll range
-    final int scrollRange = this.contentHeight - viewableHeight;
+    final int scrollRange = this.getContentHeight() - viewableHeight;
 
     // Calculate the relative mouse position within the scrollbar container
     final double relativeMouseY = mouseY - scrollbarStart;
@@ -388,6 +610,11 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
         case "advancement_criterias", "advancement_criterias_scrollbar":
           this.setScrollOffset(this.scrollOffset - (int) verticalAmount * 16);
           break;
+        case "advancement_tabs":
+          this.model.setTabPage(this.model.getTabPage() - (int) Math.signum(verticalAmount + horizontalAmount));
+          break;
+        default:
+          break;
       }
     });
 
@@ -397,10 +624,18 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
   /**
    * Handles key press events.
    * <p>
+   * While the search box is focused, it receives the keys first: the escape
+   * key closes the search results, and the enter key shows the first result.
+   * </p>
+   * <p>
    * If the key is the advancements key binding, it closes the screen and
    * releases the mouse.
    * </p>
    * <p>
+   * If the key is Ctrl+S, it writes the criteria missing a translation, see
+   * {@link MissingTranslations#write()}.
+   * </p>
+   * <p>
    * If the key is the escape key and there is a visible sidebar, it resets the
    * screen's state by setting the selected widget to null and calling the
    * {@link #init()} method.
@@ -414,10 +649,30 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    */
   @Override
   public boolean keyPressed(final int keyCode, final int scanCode, final int modifiers) {
+    if (this.searchBox != null && this.searchBox.isFocused()) {
+      if (InputConstants.KEY_ESCAPE == keyCode) {
+        this.setFocused(null);
+        return true;
+      } else if (InputConstants.KEY_RETURN == keyCode || InputConstants.KEY_NUMPADENTER == keyCode) {
+        if (!this.searchResults.isEmpty()) {
+          this.reveal(this.searchResults.get(0));
+        }
+        return true;
+      } else if (this.searchBox.keyPressed(keyCode, scanCode, modifiers) || this.searchBox.canConsumeInput()) {
+        return true;
+      }
+    }
+
     if (this.minecraft.options.keyAdvancements.matches(keyCode, scanCode)) {
       this.minecraft.setScreen(null);
       this.minecraft.mouseHandler.grabMouse();
       return true;
+    } else if (InputConstants.KEY_S == keyCode && Screen.hasControlDown()) {
+      final Path path = MissingTranslations.write();
+      SystemToast.add(this.minecraft.getToasts(), SystemToast.SystemToastId.PERIODIC_NOTIFICATION,
+          Component.translatable("text.advancements_reloaded.missing_translations.title"),
+          Component.translatable("text.advancements_reloaded.missing_translations.written", path.toString()));
+      return true;
     } else if (InputConstants.KEY_ESCAPE == keyCode && this.hasVisibleSidebar()) {
       this.setSelectedWidget(null);
       this.init();
@@ -439,7 +694,7 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * widget tooltip, and advancement criteria are rendered below it.
    * </p>
    * <p>
-   * The window is rendered at the position (0, {@link Configuration#headerHeight
+   * The window is rendered at the position (0, {@link ConfigSnapshot#getHeaderHeight()
    * } + 1),
    * and the widget tooltip and advancement criteria are rendered below it.
    * </p>
@@ -456,11 +711,115 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
     super.render(context, mouseX, mouseY, delta);
 
     final int i = 0;
-    final int j = Configuration.headerHeight + 1; // 1 are the separator pixels
-    this.drawAdvancementTree(context, mouseX, mouseY, i, j);
-    this.drawWindow(context, i, j);
-    this.drawWidgetTooltip(context, mouseX, mouseY, i, j);
-    this.drawAdvancementCriterias(context, i, j);
+    final int j = Configuration.get().getHeaderHeight() + 1; // 1 are the separator pixels
+    if (Configuration.get().isRenderCache()) {
+      this.renderLayers(context, mouseX, mouseY, i, j);
+    } else {
+      this.drawAdvancementTree(context, mouseX, mouseY, i, j);
+      this.drawWindow(context, i, j);
+      this.drawWidgetTooltip(context, mouseX, mouseY, i, j);
+      this.drawAdvancementCriterias(context, i, j);
+      this.redrawnLayers = Layer.values().length;
+    }
+
+    this.drawSearch(context, mouseX, mouseY, delta);
+
+    if (this.minecraft.getDebugOverlay().showDebugScreen()) {
+      context.pose().pushPose();
+      context.pose().translate(0.0F, 0.0F, 500.0F);
+      context.drawString(this.font, Component.translatable("text.advancements_reloaded.debug.redrawn_layers",
+          this.redrawnLayers, Layer.values().length), 2, height - this.font.lineHeight - 1, CommonColors.WHITE);
+      context.drawString(this.font, Component.translatable("text.advancements_reloaded.debug.event_batch",
+          this.model.getLastBatchSize(), String.format("%.2f", this.model.getLastBatchNanos() / 1_000_000.0D)), 2,
+          height - 2 * this.font.lineHeight - 1, CommonColors.WHITE);
+      context.drawString(this.font, Component.translatable("text.advancements_reloaded.debug.criterion_names",
+          Math.round(ReloadedCriterionProgress.getNameCacheHitRate() * 100.0D)), 2,
+          height - 3 * this.font.lineHeight - 1, CommonColors.WHITE);
+      context.pose().popPose();
+    }
+  }
+
+  /**
+   * Renders the screen from the cached layers, painting again only the layers
+   * marked as outdated since the last frame.
+   * <p>
+   * The tree is cached by its tab, the sidebar and the window in their own
+   * {@link RenderLayerCache}. The widget tooltip follows the mouse and is
+   * always drawn live.
+   * </p>
+   * <p>
+   * A cached layer is drawn back as a flat quad, without the depth it was
+   * painted with. The layers are therefore drawn in the order of their depth:
+   * the tree, the sidebar, then the window which covers the overflow of the
+   * sidebar.
+   * </p>
+   *
+   * @param context the GUI graphics
+   * @param mouseX  the mouse X-coordinate
+   * @param mouseY  the mouse Y-coordinate
+   * @param x       the X-coordinate of the tab
+   * @param y       the Y-coordinate of the tab
+   */
+  private void renderLayers(final GuiGraphics context, final int mouseX, final int mouseY, final int x,
+      final int y) {
+    this.redrawnLayers = 0;
+    if (this.dirtyLayers.contains(Layer.TREE)) {
+      this.selectedTab.ifPresent(AdvancementReloadedTab::invalidateRender);
+    }
+
+    // The tab tracks the widgets of the tree showing icons changing over time
+    if (this.drawAdvancementTree(context, mouseX, mouseY, x, y)) {
+      this.redrawnLayers++;
+    }
+
+    if (this.hasVisibleSidebar() && Configuration.get().getCriteriasWidth() != 0) {
+      this.renderLayer(context, Layer.SIDEBAR, this.sidebarCache,
+          graphics -> this.drawAdvancementCriterias(graphics, x, y));
+    }
+    this.renderLayer(context, Layer.WINDOW, this.windowCache, graphics -> this.drawWindow(graphics, x, y));
+    this.drawWidgetTooltip(context, mouseX, mouseY, x, y);
+    this.dirtyLayers.clear();
+  }
+
+  /**
+   * Renders a layer of the screen from its cache, painting it again if it was
+   * marked as outdated or if the screen was resized.
+   *
+   * @param context the GUI graphics
+   * @param layer   the layer to render
+   * @param cache   the cache of the layer
+   * @param painter the draw calls of the layer
+   */
+  private void renderLayer(final GuiGraphics context, final Layer layer, final RenderLayerCache cache,
+      final Consumer<GuiGraphics> painter) {
+    if (this.dirtyLayers.contains(layer)) {
+      cache.invalidate();
+    }
+
+    final int liveDraws = IconAtlas.getInstance().getLiveDraws();
+    // CHECKSTYLE:OFF
+    final int[] key = new int[] { width, height };
+    // CHECKSTYLE:ON
+    if (cache.render(context, key, painter)) {
+      this.onLayerRedrawn(layer, liveDraws);
+    }
+  }
+
+  /**
+   * Counts a layer painted again during this frame, and remembers whether it
+   * shows icons changing over time.
+   *
+   * @param layer     the layer painted again
+   * @param liveDraws the number of icons rendered live before painting the
+   *                  layer
+   */
+  private void onLayerRedrawn(final Layer layer, final int liveDraws) {
+    this.redrawnLayers++;
+    if (IconAtlas.getInstance().getLiveDraws() != liveDraws) {
+      this.animatedLayers.add(layer);
+    } else {
+      this.animatedLayers.remove(layer);
+    }
   }
 
   /**
@@ -491,11 +850,13 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * @param mouseY  the mouse Y-coordinate
    * @param x       the X-coordinate of the tab
    * @param y       the Y-coordinate of the tab
+   * @return true if the tree was painted again, false if it was drawn from the
+   *         render cache of the tab
    */
-  private void drawAdvancementTree(final GuiGraphics context, final int mouseX, final int mouseY, final int x,
+  private boolean drawAdvancementTree(final GuiGraphics context, final int mouseX, final int mouseY, final int x,
       final int y) {
 
-    switch (Configuration.backgroundStyle) {
+    switch (Configuration.get().getBackgroundStyle()) {
       case Configuration.BackgroundStyle.TRANSPARENT:
         break;
       case Configuration.BackgroundStyle.BLACK:
@@ -518,8 +879,9 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
           (height / 2) - this.font.lineHeight * 2, CommonColors.WHITE);
       context.drawCenteredString(this.font, SAD_LABEL_TEXT, width / 2,
           (height / 2) + this.font.lineHeight * 2, CommonColors.WHITE);
+      return true;
     } else {
-      this.selectedTab.get().render(context, x, y);
+      return this.selectedTab.get().render(context, x, y);
     }
   }
 
@@ -534,10 +896,11 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * </p>
    *
    * <p>
-   * It then calculates the width of the text and the padding for the title and
-   * description. It then draws the title and description using and also draws a
-   * line below the description. Finally, it draws the advancement criteria for
-   * each step in the selected widget's progress.
+   * It then draws the title and description, a line below the description and
+   * the advancement criteria for each step in the selected widget's progress.
+   * The lines are taken from the {@link SidebarLayout} of the selected widget,
+   * which is only computed again when the widget, its progress, the sidebar
+   * size or the language change.
    * </p>
    *
    * @param context the graphics context to draw on
@@ -545,61 +908,28 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * @param y       the y position of the screen
    */
   public void drawAdvancementCriterias(final GuiGraphics context, final int x, final int y) {
-    if (!this.hasVisibleSidebar() || Configuration.criteriasWidth == 0)
+    if (!this.hasVisibleSidebar() || Configuration.get().getCriteriasWidth() == 0)
       return;
 
-    int paddingTop = Configuration.headerHeight + 6;
-    final int sidebarXOffset = width - Configuration.criteriasWidth + 8;
-    // 6 are the scrollbar width and 12 (6[left]-6[right]) are the right margin
-    final int maxTextWidth = Configuration.criteriasWidth - (this.needScrollbarOnCriterias() ? 6 : 0) - 12;
-
-    final Component title = this.getSelectedWidget().getAdvancement().name().get();
-    final Component description = this.getSelectedWidget().getAdvancement().display().get().getDescription();
+    final int paddingTop = Configuration.get().getHeaderHeight() + 6;
+    final int sidebarXOffset = width - Configuration.get().getCriteriasWidth() + 8;
 
-    context.fill(width - Configuration.criteriasWidth, Configuration.headerHeight, width,
-        height - Configuration.footerHeight, Mth.floor(0.5F * 255.0F) << 24);
+    context.fill(width - Configuration.get().getCriteriasWidth(), Configuration.get().getHeaderHeight(), width,
+        height - Configuration.get().getFooterHeight(), Mth.floor(0.5F * 255.0F) << 24);
 
-    context.blit(criteriasSeparator, width - Configuration.criteriasWidth,
-        Configuration.headerHeight + 1, 0.0F, 0.0F, 2,
-        height - Configuration.headerHeight - Configuration.footerHeight
+    context.blit(criteriasSeparator, width - Configuration.get().getCriteriasWidth(),
+        Configuration.get().getHeaderHeight() + 1, 0.0F, 0.0F, 2,
+        height - Configuration.get().getHeaderHeight() - Configuration.get().getFooterHeight()
             - 2,
         2, 32);
 
     final PoseStack postStack = context.pose();
     postStack.pushPose();
     postStack.translate(0, -this.scrollOffset, 20D);
-
-    this.contentHeight = 6; // 6 are the bottom margin
-
-    // Drawing title
-    context.drawWordWrap(this.font, title, sidebarXOffset, paddingTop, maxTextWidth, CommonColors.WHITE);
-    // 4 are the padding bottom added
-    paddingTop += (this.font.lineHeight) * this.font.split(title, maxTextWidth).size() + 4;
-    this.contentHeight += (this.font.lineHeight) * this.font.split(title, maxTextWidth).size() + 4;
-
-    // Drawing description
-    if (Configuration.displayDescription && description != null) {
-      context.drawWordWrap(this.font, description, sidebarXOffset, paddingTop, maxTextWidth,
-          this.getSelectedWidget().getAdvancement().display().get().getType().getChatColor().getColor());
-      // 4 are the padding bottom added
-      paddingTop += (this.font.lineHeight) * this.font.split(description, maxTextWidth).size() + 4;
-      this.contentHeight += (this.font.lineHeight) * this.font.split(description, maxTextWidth).size() + 4;
-    }
-
-    context.hLine(sidebarXOffset, width - 12, paddingTop, CommonColors.LIGHT_GRAY);
-    paddingTop += 5;
-    this.contentHeight += 5;
-
-    // Drawing criterias
-    for (final ReloadedCriterionProgress step : this.getSelectedWidget().getSteps()) {
-      final Component stepTitle = step.getHumanCriterionName();
-      final int lineNeeded = this.font.split(stepTitle, maxTextWidth).size();
-      context.drawWordWrap(this.font, stepTitle, sidebarXOffset, paddingTop, maxTextWidth, step.getColor());
-      // 4 are the padding bottom added
-      paddingTop += (this.font.lineHeight) * lineNeeded + 4;
-      this.contentHeight += (this.font.lineHeight) * lineNeeded + 4;
-    }
-
+    // Only the lines between the header and the footer are visible
+    this.getSidebarLayout().render(context, this.font, sidebarXOffset, paddingTop, width - 12,
+        Configuration.get().getHeaderHeight() - paddingTop + this.scrollOffset,
+        height - Configuration.get().getFooterHeight() - paddingTop + this.scrollOffset);
     postStack.popPose();
 
     this.drawAdvancementCriteriaScrollbar(context, x, y);
@@ -621,19 +951,20 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
       return;
     }
 
-    final int drawingHeight = height - Configuration.headerHeight
-        - Configuration.footerHeight;
+    final int drawingHeight = height - Configuration.get().getHeaderHeight()
+        - Configuration.get().getFooterHeight();
 
     // Drawing scrollbar background
     RenderSystem.enableBlend();
-    context.blitSprite(SCROLLER_BACKGROUND_TEXTURE, width - 6, Configuration.headerHeight,
+    context.blitSprite(SCROLLER_BACKGROUND_TEXTURE, width - 6, Configuration.get().getHeaderHeight(),
         6, drawingHeight);
 
     // Drawing the scrollbar
-    final int scrollBarHeight = (int) (drawingHeight * drawingHeight / (double) this.contentHeight);
-    final int scrollBarY = Configuration.headerHeight
+    final int contentHeight = this.getContentHeight();
+    final int scrollBarHeight = (int) (drawingHeight * drawingHeight / (double) contentHeight);
+    final int scrollBarY = Configuration.get().getHeaderHeight()
         + (int) ((drawingHeight - scrollBarHeight)
-            * (this.scrollOffset / (double) (this.contentHeight - (drawingHeight))));
+            * (this.scrollOffset / (double) (contentHeight - (drawingHeight))));
 
     // draw the scrollbar
     context.blitSprite(SCROLLER_TEXTURE, width - 6, scrollBarY, 6, scrollBarHeight);
@@ -649,8 +980,38 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * @return true if a scrollbar is needed, false otherwise
    */
   private boolean needScrollbarOnCriterias() {
-    return this.contentHeight > height - Configuration.headerHeight
-        - Configuration.footerHeight;
+    return this.getContentHeight() > height - Configuration.get().getHeaderHeight()
+        - Configuration.get().getFooterHeight();
+  }
+
+  /**
+   * Returns the height of the content of the advancement criteria area, or 0
+   * if the sidebar is not visible.
+   *
+   * @return the height of the content of the sidebar
+   */
+  private int getContentHeight() {
+    if (!this.hasVisibleSidebar() || Configuration.get().getCriteriasWidth() == 0) {
+      return 0;
+    }
+    return this.getSidebarLayout().getContentHeight();
+  }
+
+  /**
+   * Returns the layout of the sidebar for the selected widget, computing it
+   * again if the widget, its progress, the sidebar size, the language or the
+   * configuration changed since the last call.
+   *
+   * @return the layout of the sidebar
+   */
+  private SidebarLayout getSidebarLayout() {
+    final AdvancementReloadedWidget widget = this.getSelectedWidget();
+    final ConfigSnapshot config = Configuration.get();
+    final int viewableHeight = height - config.getHeaderHeight() - config.getFooterHeight();
+    if (this.sidebarLayout == null || !this.sidebarLayout.matches(widget, config.getCriteriasWidth(), viewableHeight)) {
+      this.sidebarLayout = SidebarLayout.compute(this.font, widget, config.getCriteriasWidth(), viewableHeight);
+    }
+    return this.sidebarLayout;
   }
 
   /**
@@ -659,7 +1020,7 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    * @return true if the sidebar is visible, false otherwise
    */
   public boolean hasVisibleSidebar() {
-    return this.getSelectedWidget() != null && Configuration.displaySidebar;
+    return this.getSelectedWidget() != null && Configuration.get().isDisplaySidebar();
   }
 
   /**
@@ -690,60 +1051,143 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
           .orElse(TextureManager.INTENTIONAL_MISSING_TEXTURE);
 
       // Draw header
-      final int headerDrawHeight = Configuration.headerHeight / 16 + 1;
+      final int headerDrawHeight = Configuration.get().getHeaderHeight() / 16 + 1;
       for (int m = 0; m <= width / 16; m++) {
         for (int n = 0; n < headerDrawHeight; n++) {
           int textureHeight = 16;
           if (n == headerDrawHeight - 1) {
-            textureHeight = Configuration.headerHeight % 16;
+            textureHeight = Configuration.get().getHeaderHeight() % 16;
           }
 
           context.blit(textureResourceLocation, 16 * m, 16 * n, 0.0F, 0.0F, 16, textureHeight, 16, 16);
         }
       }
-      context.fill(0, 0, width, Configuration.headerHeight,
+      context.fill(0, 0, width, Configuration.get().getHeaderHeight(),
           Mth.floor(0.3F * 255.0F) << 24);
 
       // Draw footer
-      final int footerDrawHeight = Configuration.footerHeight / 16 + 1;
+      final int footerDrawHeight = Configuration.get().getFooterHeight() / 16 + 1;
       for (int m = 0; m <= width / 16; m++) {
         for (int n = 0; n < footerDrawHeight; n++) {
           int textureHeight = 16;
           if (n == headerDrawHeight - 1) {
-            textureHeight = Configuration.headerHeight % 16;
+            textureHeight = Configuration.get().getHeaderHeight() % 16;
           }
 
           context.blit(textureResourceLocation, 16 * m,
-              (height - Configuration.footerHeight) + 16 * n, 0.0F,
+              (height - Configuration.get().getFooterHeight()) + 16 * n, 0.0F,
               0.0F, 16, textureHeight, 16, 16);
         }
       }
-      context.fill(0, height - Configuration.footerHeight, width, height,
+      context.fill(0, height - Configuration.get().getFooterHeight(), width, height,
           Mth.floor(0.3F * 255.0F) << 24);
 
       // Draw separators
       this.drawSeparators(context, 0.7F);
 
-      // Draw title on header
-      context.drawCenteredString(this.font, display.getTitle(), width / 2,
-          (Configuration.headerHeight - 20) / 2 - this.font.lineHeight / 2, 0xffffff);
+      // Draw title on header, and the completion of the tab below it when the
+      // tabs above leave room for it, after the title otherwise. The completion
+      // is left out when it would reach the search box, the tab tooltips still
+      // show it.
+      final int titleY = (Configuration.get().getHeaderHeight() - 20) / 2 - this.font.lineHeight / 2;
+      context.drawCenteredString(this.font, display.getTitle(), width / 2, titleY, 0xffffff);
+      final Component completion = this.getCompletionText(this.selectedTab.get());
+      final int completionY = titleY + this.font.lineHeight + 2;
+      final int tabsY = this.model.getTabs().size() > 1 ? y + TabPlacement.ABOVE.getTabY(0)
+          : Configuration.get().getHeaderHeight();
+      final int completionX = width / 2 + this.font.width(display.getTitle()) / 2 + 6;
+      if (completionY + this.font.lineHeight <= tabsY) {
+        context.drawCenteredString(this.font, completion, width / 2, completionY, CommonColors.LIGHT_GRAY);
+      } else if (completionX + this.font.width(completion) <= width - SEARCH_BOX_WIDTH - 8) {
+        context.drawString(this.font, completion, completionX, titleY, CommonColors.LIGHT_GRAY);
+      }
     }
 
     context.pose().popPose();
 
-    if (this.tabs.size() > 1) {
-      for (final AdvancementReloadedTab advancementTab : this.tabs.values()) {
+    if (this.model.getTabs().size() > 1) {
+      for (final AdvancementReloadedTab advancementTab : this.model.getVisibleTabs()) {
         if (advancementTab.getType() == TabPlacement.BELOW) {
-          y = height - Configuration.footerHeight - 1;
+          y = height - Configuration.get().getFooterHeight() - 1;
         }
         advancementTab.setPos(x + 4, y);
         advancementTab.drawBackground(context, advancementTab == this.selectedTab.orElse(null));
         advancementTab.drawIcon(context);
       }
+      IconAtlas.getInstance().flush(context);
+    }
+
+    if (this.hasTabPages()) {
+      this.drawTabPages(context);
     }
 
   }
 
+  /**
+   * Draws the buttons showing the previous and next pages of tabs, and the
+   * number of the current page, on the right of the header.
+   *
+   * @param context the graphics context to draw on
+   */
+  private void drawTabPages(final GuiGraphics context) {
+    final int buttonY = this.getPageButtonY();
+    final int backwardX = this.getPageButtonX(false);
+    context.pose().pushPose();
+    context.pose().translate(0.0F, 0.0F, 222.0F);
+    context.blitSprite(PAGE_BACKWARD_SPRITE, backwardX, buttonY, PAGE_BUTTON_WIDTH, PAGE_BUTTON_HEIGHT);
+    context.blitSprite(PAGE_FORWARD_SPRITE, this.getPageButtonX(true), buttonY, PAGE_BUTTON_WIDTH,
+        PAGE_BUTTON_HEIGHT);
+    final Component page = Component.translatable("text.advancements_reloaded.tab_page",
+        this.model.getTabPage() + 1, this.model.getTabPageCount());
+    context.drawString(this.font, page, backwardX - 4 - this.font.width(page),
+        buttonY + (PAGE_BUTTON_HEIGHT - this.font.lineHeight) / 2 + 1, CommonColors.WHITE);
+    context.pose().popPose();
+  }
+
+  /**
+   * Whether the tabs do not fit on a single page of the tab strip.
+   *
+   * @return true if the page buttons are displayed
+   */
+  private boolean hasTabPages() {
+    return this.model.getTabPageCount() > 1;
+  }
+
+  /**
+   * Gets the x-coordinate of a page button.
+   *
+   * @param forward true for the button of the next page, false for the button
+   *                of the previous page
+   * @return the x-coordinate of the button
+   */
+  private int getPageButtonX(final boolean forward) {
+    return forward ? width - PAGE_BUTTON_WIDTH - 4 : width - 2 * PAGE_BUTTON_WIDTH - 8;
+  }
+
+  /**
+   * Gets the y-coordinate of the page buttons, centered on the row of tabs
+   * above the tree.
+   *
+   * @return the y-coordinate of the buttons
+   */
+  private int getPageButtonY() {
+    return Configuration.get().getHeaderHeight() - PAGE_BUTTON_HEIGHT - 2;
+  }
+
+  /**
+   * Whether the mouse is on the page button at the given x-coordinate.
+   *
+   * @param buttonX the x-coordinate of the button
+   * @param mouseX  the x-coordinate of the mouse
+   * @param mouseY  the y-coordinate of the mouse
+   * @return true if the mouse is on the button
+   */
+  private boolean isOnPageButton(final int buttonX, final double mouseX, final double mouseY) {
+    final int buttonY = this.getPageButtonY();
+    return mouseX >= buttonX && mouseX < buttonX + PAGE_BUTTON_WIDTH
+        && mouseY >= buttonY && mouseY < buttonY + PAGE_BUTTON_HEIGHT;
+  }
+
   /**
    * Draws separators for this window.
    * 
@@ -770,13 +1214,13 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
     // Bind and draw header texture
     RenderSystem.setShaderTexture(0, Screen.INWORLD_HEADER_SEPARATOR);
     context.blit(Screen.INWORLD_HEADER_SEPARATOR, 0,
-        Configuration.headerHeight - 1, 0.0F, 0.0F,
+        Configuration.get().getHeaderHeight() - 1, 0.0F, 0.0F,
         width, 2, 32, 2);
 
     // Bind and draw footer texture
     RenderSystem.setShaderTexture(0, Screen.INWORLD_FOOTER_SEPARATOR);
     context.blit(Screen.INWORLD_FOOTER_SEPARATOR, 0,
-        height - Configuration.footerHeight - 1, 0.0F,
+        height - Configuration.get().getFooterHeight() - 1, 0.0F,
         0.0F, width, 2, 32, 2);
 
     // Reset shader color to avoid affecting subsequent draws
@@ -807,115 +1251,16 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
       context.pose().popPose();
     }
 
-    if (this.tabs.size() > 1) {
-      for (final AdvancementReloadedTab advancementTab : this.tabs.values()) {
+    if (this.model.getTabs().size() > 1) {
+      for (final AdvancementReloadedTab advancementTab : this.model.getVisibleTabs()) {
         if (advancementTab.isClickOnTab(x, y, (double) mouseX, (double) mouseY)) {
-          context.renderTooltip(this.font, advancementTab.getTitle(), mouseX, mouseY);
+          context.renderComponentTooltip(this.font,
+              List.of(advancementTab.getTitle(), this.getCompletionText(advancementTab)), mouseX, mouseY);
         }
       }
     }
   }
 
-  /**
-   * Sorts the tabs alphabetically by their title. If the configuration
-   * value {@link Configuration#tabsAlphabeticOrder} is set to {@code true},
-   * the tabs are sorted based on the string representation of their title.
-   * Otherwise, the tabs are not sorted.
-   */
-  private void sortTabsAlphabetically() {
-    if (Configuration.tabsAlphabeticOrder) {
-      final List<AdvancementReloadedTab> sortedTabs = new ArrayList<>(this.tabs.values());
-      sortedTabs.sort(Comparator.comparing(
-          tab -> tab.getRoot().advancement().name().orElse(Component.literal(tab.getRoot().toString())).getString()));
-
-      this.tabs.clear();
-      for (int index = 0; index < sortedTabs.size(); index++) {
-        final AdvancementReloadedTab tab = sortedTabs.get(index);
-
-        // Set the index of the tab to its index in the sorted list
-        // This is used to identify the tab in the tab list and to determine
-        // the correct position on UI.
-        tab.setIndex(index);
-        this.tabs.put(tab.getRoot().holder(), tab);
-      }
-    }
-  }
-
-  /**
-   * Adds a new root advancement to the list of tabs, if the given root's
-   * advancement has a display information.
-   *
-   * @param root the root advancement node to add
-   */
-  public void onRootAdded(final AdvancementNode root) {
-    final AdvancementReloadedTab advancementTab = AdvancementReloadedTab.create(this.minecraft, this, this.tabs.size(),
-        root);
-    if (advancementTab != null) {
-      this.tabs.put(root.holder(), advancementTab);
-      this.sortTabsAlphabetically();
-    }
-  }
-
-  /**
-   * This implementation does nothing.
-   *
-   * @param root the removed root advancement node
-   */
-  public void onRootRemoved(final AdvancementNode root) {
-  }
-
-  /**
-   * Called when a dependent of the given root advancement is added.
-   * The given dependent is added to the tab the root is in.
-   *
-   * @param dependent the dependent to add
-   */
-  public void onDependentAdded(final AdvancementNode dependent) {
-    final AdvancementReloadedTab advancementTab = this.getTab(dependent);
-    if (advancementTab != null) {
-      advancementTab.addAdvancement(dependent);
-    }
-  }
-
-  /**
-   * Called when a dependent of the given root advancement is removed.
-   * The given dependent is removed from the tab the root is in.
-   *
-   * @param dependent the dependent to remove
-   */
-  public void onDependentRemoved(final AdvancementNode dependent) {
-  }
-
-  /**
-   * Called when the progress of an advancement changes.
-   * The given advancement is the advancement with changed progress, and the given
-   * progress is the new progress.
-   * The given progress is set on the widget for the given advancement, if such a
-   * widget exists.
-   *
-   * @param advancement the advancement with changed progress
-   * @param progress    the new progress
-   */
-  @Override
-  public void onUpdateAdvancementProgress(final AdvancementNode advancement, final AdvancementProgress progress) {
-    final AdvancementReloadedWidget advancementWidget = this.getAdvancementWidget(advancement);
-    if (advancementWidget != null) {
-      advancementWidget.setProgress(progress);
-    }
-  }
-
-  /**
-   * Called when the selected tab changes.
-   * The given advancement is the selected tab, or null if no tab is selected.
-   * The selected tab is set to the given tab.
-   *
-   * @param advancement the selected tab, or null if no tab is selected
-   */
-  @Override
-  public void onSelectedTabChanged(@Nullable final AdvancementHolder advancement) {
-    this.setSelectedTab(this.tabs.get(advancement));
-  }
-
   /**
    * Sets the currently selected tab to the given tab.
    *
@@ -928,20 +1273,25 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
   /**
    * Sets the currently selected tab to the given tab.
    * If the given tab is empty, no tab is selected.
-   * The clickable regions for the widgets are recalculated.
+   * The widgets of the tab are built if it was never selected, and the
+   * clickable regions for the widgets are recalculated.
    *
    * @param tab the tab to select, or an empty optional to select none
    */
   public void setSelectedTab(final Optional<AdvancementReloadedTab> tab) {
+    // The widgets of a tab are built when it is first selected
+    tab.ifPresent(AdvancementReloadedTab::materialize);
     this.selectedTab = tab;
     this.setClickableRegions();
+    this.markDirty(Layer.WINDOW);
   }
 
   /**
    * Sets the currently selected widget to the given widget.
    * The selected widget is used to determine the initial scroll position when the
    * window is closed and reopened.
-   * The clickable regions for the widgets are recalculated.
+   * The clickable regions for the widgets are recalculated. The selection is
+   * only shown by the sidebar, the rendered tree is kept.
    *
    * @param widget the widget to select, or null to select none
    */
@@ -950,6 +1300,7 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
     this.scrollOffset = 0;
     Memory.setWidget(widget);
     this.setClickableRegions();
+    this.markDirty(Layer.SIDEBAR);
   }
 
   /**
@@ -962,9 +1313,10 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
   private void setScrollOffset(final int value) {
     if (!this.needScrollbarOnCriterias())
       return;
-    final int max = this.contentHeight - (height - Configuration.headerHeight
-        - Configuration.footerHeight);
+    final int max = this.getContentHeight() - (height - Configuration.get().getHeaderHeight()
+        - Configuration.get().getFooterHeight());
     this.scrollOffset = Mth.clamp(value, 0, max);
+    this.markDirty(Layer.SIDEBAR);
   }
 
   /**
@@ -979,14 +1331,6 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
     return this.selectedWidget;
   }
 
-  /**
-   * Clears all tabs and resets the selected tab to none.
-   */
-  public void onClear() {
-    this.tabs.clear();
-    this.selectedTab = null;
-  }
-
   /**
    * Returns the widget associated with the given advancement, or null if no such
    * widget exists.
@@ -997,81 +1341,88 @@ public class AdvancementReloadedScreen extends Screen implements ClientAdvanceme
    */
   @Nullable
   public AdvancementReloadedWidget getAdvancementWidget(final AdvancementNode advancement) {
-    final AdvancementReloadedTab advancementTab = this.getTab(advancement);
-    return advancementTab == null ? null : advancementTab.getWidget(advancement.holder());
+    return this.model.getAdvancementWidget(advancement);
   }
 
   /**
-   * Gets the tab associated with the given advancement, or null if no such tab
-   * exists. The tab is determined by the root of the given advancement.
-   *
-   * @param advancement the advancement to get the tab for
-   * @return the tab associated with the given advancement, or null if no such
-   *         tab exists
+   * Called by the model when a tab is added, the tab strip of the window is
+   * drawn again.
    */
-  @Nullable
-  private AdvancementReloadedTab getTab(final AdvancementNode advancement) {
-    final AdvancementNode placedAdvancement = advancement.root();
-    return this.tabs.get(placedAdvancement.holder());
+  public void onTabsChanged() {
+    this.markDirty(Layer.WINDOW);
   }
 
   /**
-   * Adds a new root advancement to the list of tabs, if the given root's
-   * advancement has a display information.
+   * Called by the model when the progress of a widget changes. The sidebar is
+   * drawn again if it shows the given widget.
    *
-   * @param advancement the root advancement node to add
+   * @param widget the widget with changed progress
    */
-  @Override
-  public void onAddAdvancementRoot(final AdvancementNode advancement) {
-    final AdvancementReloadedTab advancementTab = AdvancementReloadedTab.create(this.minecraft, this, this.tabs.size(),
-        advancement);
-    if (advancementTab != null) {
-      this.tabs.put(advancement.holder(), advancementTab);
-      this.sortTabsAlphabetically();
+  public void onWidgetProgress(final AdvancementReloadedWidget widget) {
+    if (widget == this.selectedWidget) {
+      this.markDirty(Layer.SIDEBAR);
     }
   }
 
   /**
-   * Removes the tab associated with the given root advancement, if such a tab
-   * exists.
+   * Called by the model when an advancement of the given tab is completed, or
+   * no longer completed. The header is drawn again if it shows the given tab.
    *
-   * @param advancement the root advancement node to remove
+   * @param tab the tab with changed completion
    */
-  @Override
-  public void onRemoveAdvancementRoot(final AdvancementNode advancement) {
+  public void onCompletionChanged(final AdvancementReloadedTab tab) {
+    if (this.selectedTab.orElse(null) == tab) {
+      this.markDirty(Layer.WINDOW);
+    }
   }
 
   /**
-   * Adds a new advancement to the tab associated with its root advancement, if
-   * such a tab exists.
+   * Returns the number of completed advancements of the given tab, out of its
+   * number of advancements, as shown in the header and the tab tooltip.
    *
-   * @param advancement the advancement to add
+   * @param tab the tab to describe
+   * @return the completion text of the tab
    */
-  @Override
-  public void onAddAdvancementTask(final AdvancementNode advancement) {
-    final AdvancementReloadedTab advancementTab = this.getTab(advancement);
-    if (advancementTab != null) {
-      advancementTab.addAdvancement(advancement);
-    }
+  private Component getCompletionText(final AdvancementReloadedTab tab) {
+    return Component.translatable("text.advancements_reloaded.completion", tab.getCompletedCount(),
+        tab.getAdvancementCount()).withStyle(ChatFormatting.GRAY);
   }
 
   /**
-   * Removes the widget associated with the given advancement from its tab, if
-   * such a tab and widget exist.
+   * Called by the model when a new configuration is published. The cached
+   * layouts and layers are dropped when an option they are drawn with changed.
    *
-   * @param advancement the advancement to remove
+   * @param previous the previous configuration
+   * @param next     the new configuration
    */
-  @Override
-  public void onRemoveAdvancementTask(final AdvancementNode advancement) {
+  public void onConfigurationChanged(final ConfigSnapshot previous, final ConfigSnapshot next) {
+    if (previous.isRenderCache() != next.isRenderCache()
+        || previous.getRenderCacheBudget() != next.getRenderCacheBudget()) {
+      this.releaseRenderCaches();
+    }
+    this.sidebarLayout = null;
+    this.setClickableRegions();
+    this.markDirty(Layer.values());
   }
 
   /**
-   * Called when all advancements have been cleared from the advancement manager.
-   * Resets the screen state to its initial state.
+   * Called by the model when all advancements have been cleared. Resets the
+   * screen state to its initial state.
    */
-  @Override
   public void onAdvancementsCleared() {
-    this.tabs.clear();
-    this.selectedTab = null;
+    this.selectedTab = Optional.empty();
+    this.selectedWidget = null;
+    this.setClickableRegions();
+    this.markDirty(Layer.values());
+  }
+
+  /**
+   * The layers of the screen cached when {@link ConfigSnapshot#isRenderCache()} is
+   * enabled.
+   */
+  private enum Layer {
+    TREE,
+    SIDEBAR,
+    WINDOW
   }
 }
@@ -2,13 +2,23 @@ package codes.atomys.advr.screens;
 
 import codes.atomys.advr.ReloadedDisplayInfo;
 import codes.atomys.advr.TabPlacement;
+import codes.atomys.advr.config.ConfigSnapshot;
 import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.render.ConnectorGeometry;
+import codes.atomys.advr.render.IconAtlas;
+import codes.atomys.advr.render.RenderLayerCache;
+import codes.atomys.advr.render.TileCache;
+import codes.atomys.advr.utils.SpatialGrid;
+import codes.atomys.advr.utils.TreeLinker;
 import com.google.common.collect.Maps;
-import java.util.Iterator;
+import com.google.common.collect.Sets;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import net.minecraft.advancements.AdvancementHolder;
 import net.minecraft.advancements.AdvancementNode;
+import net.minecraft.advancements.AdvancementProgress;
 import net.minecraft.advancements.DisplayInfo;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -30,8 +40,11 @@ import org.jetbrains.annotations.Nullable;
  * </p>
  * <p>
  * The tab can be created using the
- * {@link #create(Minecraft, AdvancementReloadedScreen, int, AdvancementNode)}
- * method, which initializes the tab with the given parameters. The tab's
+ * {@link #create(Minecraft, AdvancementNode)} method, which initializes
+ * the tab with the given parameters. Tabs are owned by the
+ * {@link AdvancementModel} and outlive the screen: they are attached to a
+ * screen with {@link #attach(AdvancementReloadedScreen)} each time it is
+ * initialized. The tab's
  * position can be set using the {@link #setPos(int, int)} method, and it can be
  * rendered using the {@link #render(GuiGraphics, int, int)} method.
  * </p>
@@ -42,6 +55,11 @@ import org.jetbrains.annotations.Nullable;
  * retrieved using the {@link #getWidget(AdvancementHolder)} method.
  * </p>
  * <p>
+ * The widgets are only built when the tab is first selected, see
+ * {@link #materialize()}. Until then, the tab only keeps the nodes of its
+ * advancements and their last progress.
+ * </p>
+ * <p>
  * The tab also provides methods for drawing the background and icon, rendering
  * tooltips, and handling user interactions such as clicking on the tab or its
  * widgets.
@@ -58,16 +76,36 @@ public class AdvancementReloadedTab {
       .withDefaultNamespace("advancements/task_frame_obtained");
   private static final ResourceLocation UNSELECTED_IDENTIFIER = ResourceLocation
       .withDefaultNamespace("advancements/task_frame_unobtained");
+  // The order of the children of a widget, independent of their arrival order
+  static final Comparator<AdvancementHolder> CHILD_ORDER = Comparator.comparing(AdvancementHolder::id);
 
   private final Minecraft client;
-  private final AdvancementReloadedScreen screen;
-  private final TabPlacement type;
+  private AdvancementReloadedScreen screen;
+  private TabPlacement type;
   private final AdvancementNode root;
   private final ReloadedDisplayInfo display;
   private final ItemStack icon;
   private final Component title;
-  private final AdvancementReloadedWidget rootWidget;
+  @Nullable
+  private AdvancementReloadedWidget rootWidget;
   private final Map<AdvancementHolder, AdvancementReloadedWidget> widgets = Maps.newLinkedHashMap();
+  // The advancements and progress received before the widgets are built, null
+  // once the tab is materialized
+  @Nullable
+  private Map<AdvancementHolder, AdvancementNode> pendingNodes = Maps.newLinkedHashMap();
+  @Nullable
+  private Map<AdvancementHolder, AdvancementProgress> pendingProgress = Maps.newHashMap();
+  // Links each widget to its parent, the children sorted by advancement id
+  private final TreeLinker<AdvancementHolder, AdvancementReloadedWidget> linker = new TreeLinker<>(this.widgets::get,
+      CHILD_ORDER, this::attachWidget);
+  private final SpatialGrid<AdvancementReloadedWidget> widgetGrid = new SpatialGrid<>(32, 26);
+  private final ConnectorGeometry connectors = new ConnectorGeometry();
+  private final RenderLayerCache renderCache = new RenderLayerCache();
+  private final TileCache tileCache = new TileCache();
+  // The widgets whose icon was rendered live when they were last painted
+  private final Set<AdvancementReloadedWidget> animatedWidgets = Sets.newHashSet();
+  private final CompletionTree<AdvancementHolder> completion = new CompletionTree<>();
+  private int renderVersion;
   private int index;
   private double originX;
   private double originY;
@@ -88,24 +126,125 @@ public class AdvancementReloadedTab {
    * </p>
    *
    * @param client  the Minecraft client instance
-   * @param screen  the screen that the tab is associated with
    * @param type    the type of the tab
    * @param index   the index of the tab in the list of tabs
    * @param root    the root node of the tab
    * @param display the display information for the tab
    */
-  public AdvancementReloadedTab(final Minecraft client, final AdvancementReloadedScreen screen,
-      final TabPlacement type, final int index, final AdvancementNode root, final ReloadedDisplayInfo display) {
+  public AdvancementReloadedTab(final Minecraft client, final TabPlacement type, final int index,
+      final AdvancementNode root, final ReloadedDisplayInfo display) {
     this.client = client;
-    this.screen = screen;
     this.type = type;
     this.index = index;
     this.root = root;
     this.display = display;
     this.icon = display.getIcon();
     this.title = display.getTitle();
-    this.rootWidget = new AdvancementReloadedWidget(this, client, root, display);
-    this.addWidget(this.rootWidget, root.holder());
+    this.completion.add(root.holder(), null);
+  }
+
+  /**
+   * Whether the widgets of the tab are built.
+   *
+   * @return true if the tab was materialized, false otherwise
+   */
+  public boolean isMaterialized() {
+    return this.pendingNodes == null;
+  }
+
+  /**
+   * Builds the widgets of the advancements received so far, and applies their
+   * last progress. This is done once, when the tab is first selected or
+   * rendered, the following advancements are built as they are added.
+   */
+  public void materialize() {
+    if (this.pendingNodes == null) {
+      return;
+    }
+
+    final Map<AdvancementHolder, AdvancementNode> nodes = this.pendingNodes;
+    final Map<AdvancementHolder, AdvancementProgress> progress = this.pendingProgress;
+    this.pendingNodes = null;
+    this.pendingProgress = null;
+
+    this.rootWidget = new AdvancementReloadedWidget(this, this.client, this.root, this.display);
+    this.addWidget(this.rootWidget, this.root.holder());
+    nodes.values().forEach(this::addAdvancement);
+    progress.forEach((holder, value) -> {
+      final AdvancementReloadedWidget widget = this.widgets.get(holder);
+      if (widget != null) {
+        widget.setProgress(value);
+      }
+    });
+  }
+
+  /**
+   * Keeps the given progress until the widgets of the tab are built. Only the
+   * last progress of each advancement is kept.
+   *
+   * @param advancement the advancement with changed progress
+   * @param progress    the new progress
+   */
+  public void deferProgress(final AdvancementHolder advancement, final AdvancementProgress progress) {
+    if (this.pendingProgress != null) {
+      this.pendingProgress.put(advancement, progress);
+    }
+  }
+
+  /**
+   * Gets the completion of each subtree of this tab. It is counted for every
+   * advancement added to the tab, its widget being built or not.
+   *
+   * @return the completion of the subtrees of this tab
+   */
+  CompletionTree<AdvancementHolder> getCompletion() {
+    return this.completion;
+  }
+
+  /**
+   * Gets the number of completed advancements in this tab.
+   *
+   * @return the number of completed advancements
+   */
+  public int getCompletedCount() {
+    return this.completion.getCompleted(this.root.holder());
+  }
+
+  /**
+   * Gets the number of advancements in this tab, the root included.
+   *
+   * @return the number of advancements
+   */
+  public int getAdvancementCount() {
+    return this.completion.getTotal(this.root.holder());
+  }
+
+  /**
+   * Called when the completion of the given advancement changed. The widgets
+   * of its ancestors are drawn again, as their subtree badges changed.
+   *
+   * @param advancement the advancement completed or no longer completed
+   */
+  public void onCompletionChanged(final AdvancementHolder advancement) {
+    AdvancementReloadedWidget widget = this.widgets.get(advancement);
+    while (widget != null) {
+      this.invalidateWidget(widget);
+      final AdvancementHolder parent = widget.getParentHolder();
+      widget = parent == null ? null : this.widgets.get(parent);
+    }
+  }
+
+  /**
+   * Whether the given advancement was added to this tab, its widget being
+   * built or not.
+   *
+   * @param advancement the advancement to check
+   * @return true if the advancement belongs to this tab, false otherwise
+   */
+  public boolean contains(final AdvancementHolder advancement) {
+    return this.widgets.containsKey(advancement)
+        || advancement.equals(this.root.holder())
+        || (this.pendingNodes != null && this.pendingNodes.containsKey(advancement));
   }
 
   /**
@@ -125,10 +264,9 @@ public class AdvancementReloadedTab {
   /**
    * Gets the index of the tab.
    * <p>
-   * The index of the tab is its position in the list of tabs, starting from 0.
-   * The index is used to identify the tab in the tab list, and is used by the
-   * client to determine which tab to display when the player switches between
-   * tabs.
+   * The index of the tab is its position in the row of its placement,
+   * starting from 0. It is used with the placement to compute the position of
+   * the tab on the screen, see {@link #setPos(int, int)}.
    * </p>
    *
    * @return the index of the tab
@@ -138,17 +276,17 @@ public class AdvancementReloadedTab {
   }
 
   /**
-   * Sets the index of the tab.
+   * Sets the placement of the tab and its index within that placement.
    * <p>
-   * The index is the position of the tab in the list of tabs, starting from 0.
-   * The index is used to identify the tab in the tab list, and is used by the
-   * client to determine which tab to display when the player switches between
-   * tabs.
+   * The placement and index change when tabs are inserted before this one in
+   * the display order.
    * </p>
    *
-   * @param index the new index of the tab
+   * @param type  the new placement of the tab
+   * @param index the new index of the tab, starting from 0 on each placement
    */
-  public void setIndex(final int index) {
+  public void setPlacement(final TabPlacement type, final int index) {
+    this.type = type;
     this.index = index;
   }
 
@@ -242,7 +380,7 @@ public class AdvancementReloadedTab {
   public void drawIcon(final GuiGraphics context) {
     context.pose().pushPose();
     context.pose().translate(0.0D, 0.0D, 221.0D);
-    context.renderFakeItem(this.icon, this.tab_x + this.type.getTopMargin(),
+    IconAtlas.getInstance().renderIcon(context, this.icon, this.tab_x + this.type.getTopMargin(),
         this.tab_y + this.type.getLeftMargin());
     context.pose().popPose();
   }
@@ -260,7 +398,7 @@ public class AdvancementReloadedTab {
    */
   public int getWidth() {
     if (this.screen.hasVisibleSidebar())
-      return this.screen.width - Configuration.criteriasWidth;
+      return this.screen.width - Configuration.get().getCriteriasWidth();
 
     return this.screen.width;
   }
@@ -277,42 +415,178 @@ public class AdvancementReloadedTab {
    */
   public int getHeight() {
     // 2 are the separator lines
-    return this.screen.height - Configuration.headerHeight
-        - Configuration.footerHeight - 2;
+    return this.screen.height - Configuration.get().getHeaderHeight()
+        - Configuration.get().getFooterHeight() - 2;
   }
 
   /**
    * Renders the tab.
    * <p>
-   * This method is called by the screen to render the tab. It first checks if
-   * the tab has been initialized, and if not, sets the origin of the tab based
+   * This method is called by the screen to render the tab. It first builds
+   * the widgets of the tab if needed, see {@link #materialize()}, then checks
+   * if the tab has been initialized, and if not, sets the origin of the tab based
    * on the center of the screen and the size of the tab. It then renders the
-   * lines and widgets of the tab, and finally disables the scissor.
+   * retained connector geometry and the widgets of the tab that overlap its
+   * visible area, and finally disables the scissor.
+   * </p>
+   * <p>
+   * When {@link ConfigSnapshot#isRenderCache()} is enabled, the tree is painted
+   * in an offscreen framebuffer which is reused as long as the tab is not panned,
+   * resized or changed. Trees larger than the tab are cached in tiles instead,
+   * so panning them mostly re-draws tiles that are already painted.
    * </p>
    *
    * @param context the graphics context to draw on
    * @param x       the x position of the screen
    * @param y       the y position of the screen
+   * @return {@code true} if the tree was painted again, {@code false} if it
+   *         was only drawn from the render cache
    */
-  public void render(final GuiGraphics context, final int x, final int y) {
+  public boolean render(final GuiGraphics context, final int x, final int y) {
+    this.materialize();
     if (!this.initialized) {
       this.originX = (double) ((this.getWidth() / 2) - (this.maxPanX + this.minPanX) / 2);
-      this.originY = (double) ((this.screen.height / 2 - Configuration.headerHeight - 1)
+      this.originY = (double) ((this.screen.height / 2 - Configuration.get().getHeaderHeight() - 1)
           - (this.maxPanY + this.minPanY) / 2);
       this.initialized = true;
     }
 
+    if (!Configuration.get().isRenderCache()) {
+      this.renderTree(context, x, y);
+      return true;
+    }
+
+    if (this.maxPanX - this.minPanX > this.getWidth() || this.maxPanY - this.minPanY > this.getHeight()) {
+      return this.renderTiles(context, x, y);
+    }
+
+    // CHECKSTYLE:OFF
+    final int[] key = new int[] { Mth.floor(this.originX), Mth.floor(this.originY), this.getWidth(),
+        this.getHeight(), x, y, this.renderVersion };
+    // CHECKSTYLE:ON
+    return this.renderCache.render(context, key, graphics -> this.renderTree(graphics, x, y));
+  }
+
+  /**
+   * Renders the tree of the tab, without any cache.
+   *
+   * @param context the graphics context to draw on
+   * @param x       the x position of the screen
+   * @param y       the y position of the screen
+   */
+  private void renderTree(final GuiGraphics context, final int x, final int y) {
     context.enableScissor(x, y, x + this.getWidth(), y + this.getHeight());
     context.pose().pushPose();
     context.pose().translate((float) x, (float) y, 0.0F);
+    this.paintTree(context, Mth.floor(this.originX), Mth.floor(this.originY), this.getWidth(), this.getHeight());
+    context.pose().popPose();
+    context.disableScissor();
+  }
+
+  /**
+   * Renders the tree of the tab from the tile cache, used when the tree is
+   * larger than the tab. Only the tiles overlapping the visible area are
+   * drawn, and only the missing or invalidated ones are painted.
+   *
+   * @param context the graphics context to draw on
+   * @param x       the x position of the screen
+   * @param y       the y position of the screen
+   * @return {@code true} if any part of the tree was painted again
+   */
+  private boolean renderTiles(final GuiGraphics context, final int x, final int y) {
     final int i = Mth.floor(this.originX);
     final int j = Mth.floor(this.originY);
+    final long budget = Configuration.get().getRenderCacheBudget() * 1024L * 1024L;
 
-    this.rootWidget.renderLines(context, i, j, true);
-    this.rootWidget.renderLines(context, i, j, false);
-    this.rootWidget.renderWidgets(context, i, j);
+    context.enableScissor(x, y, x + this.getWidth(), y + this.getHeight());
+    context.pose().pushPose();
+    context.pose().translate((float) x, (float) y, 0.0F);
+    final boolean rendered = this.tileCache.render(context, i, j, this.getWidth(), this.getHeight(), budget,
+        (graphics, minX, minY, size) -> this.paintTree(graphics, -minX, -minY, size, size));
+    if (!rendered) {
+      this.paintTree(context, i, j, this.getWidth(), this.getHeight());
+    }
     context.pose().popPose();
     context.disableScissor();
+    return !rendered || this.tileCache.getPaintedTiles() > 0;
+  }
+
+  /**
+   * Paints the connector geometry and the widgets of the tab overlapping the
+   * given area, in the current pose.
+   *
+   * @param context    the graphics context to draw on
+   * @param originX    the x-coordinate of the origin of the tree
+   * @param originY    the y-coordinate of the origin of the tree
+   * @param viewWidth  the width of the area to paint
+   * @param viewHeight the height of the area to paint
+   */
+  private void paintTree(final GuiGraphics context, final int originX, final int originY, final int viewWidth,
+      final int viewHeight) {
+    this.connectors.render(context, originX, originY, viewWidth, viewHeight);
+    // Only the widgets overlapping the area are rendered, frames are drawn 3
+    // pixels to the right of the widget position
+    this.widgetGrid.forEachIn(-originX - 3, -originY, viewWidth - originX, viewHeight - originY, widget -> {
+      if (widget == this.rootWidget || widget.hasParent()) {
+        final int liveDraws = IconAtlas.getInstance().getLiveDraws();
+        widget.renderWidget(context, originX, originY);
+        if (IconAtlas.getInstance().getLiveDraws() != liveDraws) {
+          this.animatedWidgets.add(widget);
+        }
+      }
+    });
+    IconAtlas.getInstance().flush(context);
+  }
+
+  /**
+   * Marks the rendered tree of this tab as outdated.
+   * <p>
+   * This must be called whenever the content of the tree changes, such as when
+   * a widget is added, so the render caches are painted again on the next
+   * frame.
+   * </p>
+   */
+  public void invalidateRender() {
+    this.renderVersion++;
+    this.renderCache.invalidate();
+    this.tileCache.invalidateAll();
+    // Found again as the widgets are painted again
+    this.animatedWidgets.clear();
+  }
+
+  /**
+   * Marks the rendered area of the given widget as outdated.
+   * <p>
+   * Unlike {@link #invalidateRender()}, only the cached tiles overlapping the
+   * widget are painted again.
+   * </p>
+   *
+   * @param widget the widget whose rendering changed
+   */
+  public void invalidateWidget(final AdvancementReloadedWidget widget) {
+    this.renderVersion++;
+    this.renderCache.invalidate();
+    this.tileCache.invalidate(widget.getX(), widget.getY(), widget.getX() + 29, widget.getY() + 26);
+  }
+
+  /**
+   * Marks the rendered area of the widgets showing icons changing over time as
+   * outdated, such as enchanted items. Called on each tick, so the icons are
+   * animated at the tick rate while the rest of the tree stays cached.
+   */
+  public void invalidateAnimatedWidgets() {
+    for (final AdvancementReloadedWidget widget : this.animatedWidgets) {
+      this.invalidateWidget(widget);
+    }
+  }
+
+  /**
+   * Releases the offscreen framebuffers used to cache the rendered tree of
+   * this tab, if any.
+   */
+  public void releaseRenderCache() {
+    this.renderCache.close();
+    this.tileCache.close();
   }
 
   /**
@@ -321,9 +595,9 @@ public class AdvancementReloadedTab {
    * <p>
    * This method is called by the screen to render the tooltip for the currently
    * selected widget. It first checks if the mouse is inside the tab, and if
-   * not, immediately returns. It then iterates over all of the widgets in the
-   * tab, and for the first widget that is currently under the mouse, it renders
-   * the tooltip for that widget. It then clamps the alpha of the tooltip to
+   * not, immediately returns. It then looks up the widget under the mouse in
+   * the widget grid, and if there is one, it renders the tooltip for that
+   * widget. It then clamps the alpha of the tooltip to
    * between 0 and 0.3, and if the alpha is 0, it sets it to 0 and immediately
    * returns.
    * </p>
@@ -343,15 +617,11 @@ public class AdvancementReloadedTab {
     final int i = Mth.floor(this.originX);
     final int j = Mth.floor(this.originY);
     if (mouseX > 0 && mouseX < this.getWidth() && mouseY > 0 && mouseY < this.getHeight()) {
-      final Iterator<AdvancementReloadedWidget> widgets = this.widgets.values().iterator();
-
-      while (widgets.hasNext()) {
-        final AdvancementReloadedWidget advancementWidget = widgets.next();
-        if (advancementWidget.shouldRender(i, j, mouseX, mouseY)) {
-          rendered = true;
-          advancementWidget.drawTooltip(context, i, j, this.alpha, x, y);
-          break;
-        }
+      final AdvancementReloadedWidget advancementWidget = this.widgetGrid.find(mouseX - i, mouseY - j,
+          widget -> widget.shouldRender(i, j, mouseX, mouseY));
+      if (advancementWidget != null) {
+        rendered = true;
+        advancementWidget.drawTooltip(context, i, j, this.alpha, x, y);
       }
     }
 
@@ -393,63 +663,38 @@ public class AdvancementReloadedTab {
   public AdvancementReloadedWidget clickOnWidget(final int screenX, final int screenY, final double mouseX,
       final double mouseY) {
     final int flooredOriginX = Mth.floor(this.originX);
-    final int flooredOriginY = Mth.floor(this.originY + Configuration.headerHeight - 1);
+    final int flooredOriginY = Mth.floor(this.originY + Configuration.get().getHeaderHeight() - 1);
 
     // Prevent click outside of the advancement tree
     if (mouseX < screenX || mouseX > this.getWidth() || mouseY < screenY
-        || mouseY > this.screen.height - Configuration.footerHeight - 1)
+        || mouseY > this.screen.height - Configuration.get().getFooterHeight() - 1)
       return null;
 
-    final Iterator<AdvancementReloadedWidget> widgets = this.widgets.values().iterator();
-
-    while (widgets.hasNext()) {
-      final AdvancementReloadedWidget advancementWidget = widgets.next();
-      if (advancementWidget.isMouseOn(flooredOriginX, flooredOriginY, mouseX, mouseY))
-        return advancementWidget;
-    }
-
-    return null;
+    return this.widgetGrid.find(mouseX - flooredOriginX, mouseY - flooredOriginY,
+        widget -> widget.isMouseOn(flooredOriginX, flooredOriginY, mouseX, mouseY));
   }
 
   /**
-   * Creates a new {@link AdvancementReloadedTab} for the given client, screen,
-   * index, and root node.
+   * Creates a new {@link AdvancementReloadedTab} for the given client and root
+   * node.
    * <p>
    * This method first checks if the given root node has a display, and if not,
-   * immediately returns null. It then iterates over all of the values of the
-   * {@link TabPlacement} enum, and for the first value that is at or below the
-   * given index, it creates a new tab with the given parameters. It then
-   * returns this tab, or null if no tab could be created.
+   * immediately returns null. Otherwise it creates a new tab, placed by the
+   * {@link AdvancementModel} once inserted in the display order.
    * </p>
    *
    * @param client the Minecraft client
-   * @param screen the screen to draw the tab on
-   * @param index  the index of the tab to create
    * @param root   the root node of the tab
-   * @return a new tab, or null if no tab could be created
+   * @return a new tab, or null if the root node has no display
    */
   @Nullable
-  public static AdvancementReloadedTab create(final Minecraft client, final AdvancementReloadedScreen screen, int index,
-      final AdvancementNode root) {
+  public static AdvancementReloadedTab create(final Minecraft client, final AdvancementNode root) {
     final Optional<DisplayInfo> optional = root.advancement().display();
     if (optional.isEmpty()) {
-      return null;
-    } else {
-      final TabPlacement[] types = TabPlacement.values();
-      final int numberOfTypes = types.length;
-
-      for (int i = 0; i < numberOfTypes; ++i) {
-        final TabPlacement advancementTabType = types[i];
-        if (index < advancementTabType.getTabLimit()) {
-          return new AdvancementReloadedTab(client, screen, advancementTabType, index, root,
-              ReloadedDisplayInfo.cast(optional.get()));
-        }
-
-        index -= advancementTabType.getTabLimit();
-      }
-
       return null;
     }
+
+    return new AdvancementReloadedTab(client, TabPlacement.ABOVE, 0, root, ReloadedDisplayInfo.cast(optional.get()));
   }
 
   /**
@@ -478,12 +723,40 @@ public class AdvancementReloadedTab {
 
   }
 
+  /**
+   * Moves the origin of the tab to show the given widget in the middle of the
+   * tab, as far as the tree can be panned. On an axis where the whole tree
+   * fits in the tab, the tree is centered instead, as on the first render.
+   *
+   * @param widget the widget to show
+   */
+  public void centerOn(final AdvancementReloadedWidget widget) {
+    final int maxWidth = this.getWidth();
+    if (this.maxPanX - this.minPanX > maxWidth - 8) {
+      this.originX = Mth.clamp((double) (maxWidth / 2 - widget.getX() - 14),
+          (double) (-(this.maxPanX - maxWidth + 8)), 8D);
+    } else {
+      this.originX = (double) ((maxWidth / 2) - (this.maxPanX + this.minPanX) / 2);
+    }
+
+    final int maxHeight = this.getHeight();
+    if (this.maxPanY - this.minPanY > maxHeight - 16) {
+      this.originY = Mth.clamp((double) (maxHeight / 2 - widget.getY() - 13),
+          (double) (-(this.maxPanY - maxHeight + 16)), 16D);
+    } else {
+      this.originY = (double) ((this.screen.height / 2 - Configuration.get().getHeaderHeight() - 1)
+          - (this.maxPanY + this.minPanY) / 2);
+    }
+    this.initialized = true;
+  }
+
   /**
    * Adds a new advancement to the tab.
    * <p>
    * This method first checks if the given advancement node has a display, and
    * if not, immediately returns. It then creates a new widget with the given
-   * parameters, and adds it to the tab.
+   * parameters, and adds it to the tab. Until the tab is materialized, only
+   * the node is kept.
    * </p>
    *
    * @param advancement the advancement node to add
@@ -491,6 +764,11 @@ public class AdvancementReloadedTab {
   public void addAdvancement(final AdvancementNode advancement) {
     final Optional<DisplayInfo> optional = advancement.advancement().display();
     if (!optional.isEmpty()) {
+      this.completion.add(advancement.holder(), AdvancementReloadedWidget.getParentHolder(advancement));
+    }
+    if (!optional.isEmpty() && this.pendingNodes != null) {
+      this.pendingNodes.putIfAbsent(advancement.holder(), advancement);
+    } else if (!optional.isEmpty()) {
       final AdvancementReloadedWidget advancementWidget = new AdvancementReloadedWidget(this, this.client, advancement,
           ReloadedDisplayInfo.cast(optional.get()));
       this.addWidget(advancementWidget, advancement.holder());
@@ -503,12 +781,13 @@ public class AdvancementReloadedTab {
    * <p>
    * This method first adds the given widget to the tab's map of widgets, and
    * then updates the tab's minimum and maximum pan positions to ensure that
-   * the widget is visible in the tab.
+   * the widget is visible in the tab. The widget is also indexed in the widget
+   * grid used for hit-testing.
    * </p>
    * <p>
-   * It then iterates over all of the values of the tab's map of widgets, and
-   * calls the {@link AdvancementReloadedWidget#addToTree()} method on each
-   * widget.
+   * The widget is then linked into the tree with a {@link TreeLinker}, which
+   * keeps the whole tab construction linear in the number of advancements,
+   * and the tree independent of the order the advancements are received in.
    * </p>
    *
    * @param widget      the widget to add
@@ -524,13 +803,23 @@ public class AdvancementReloadedTab {
     this.maxPanX = Math.max(this.maxPanX, j);
     this.minPanY = Math.min(this.minPanY, k);
     this.maxPanY = Math.max(this.maxPanY, l);
-    final Iterator<AdvancementReloadedWidget> var7 = this.widgets.values().iterator();
-
-    while (var7.hasNext()) {
-      final AdvancementReloadedWidget advancementWidget = var7.next();
-      advancementWidget.addToTree();
-    }
+    this.widgetGrid.add(widget, i, k);
+    this.linker.link(advancement, widget, widget.getParentHolder());
+    this.invalidateRender();
+  }
 
+  /**
+   * Attaches the given widget to its parent and records the connector between
+   * them in the retained geometry of the tab.
+   *
+   * @param widget the widget to attach
+   * @param parent the parent widget
+   * @param index  the index of the widget among the children of the parent
+   */
+  private void attachWidget(final AdvancementReloadedWidget widget, final AdvancementReloadedWidget parent,
+      final int index) {
+    widget.attachTo(parent, index);
+    this.connectors.addConnector(parent.getX(), parent.getY(), widget.getX(), widget.getY());
   }
 
   /**
@@ -547,7 +836,18 @@ public class AdvancementReloadedTab {
   }
 
   /**
-   * Returns the screen associated with this tab.
+   * Attaches this tab to the given screen, which is used to compute the size
+   * of the tab. The origin of the tab is centered again on the next render.
+   *
+   * @param screen the screen displaying this tab
+   */
+  public void attach(final AdvancementReloadedScreen screen) {
+    this.screen = screen;
+    this.initialized = false;
+  }
+
+  /**
+   * Returns the screen this tab is attached to.
    *
    * @return the screen associated with this tab
    */
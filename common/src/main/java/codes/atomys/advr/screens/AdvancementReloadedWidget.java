@@ -1,26 +1,22 @@
 package codes.atomys.advr.screens;
 
 import codes.atomys.advr.ReloadedCriterionProgress;
-import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.render.IconAtlas;
 import com.google.common.collect.Lists;
 import com.mojang.blaze3d.systems.RenderSystem;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import net.minecraft.advancements.Advancement;
+import net.minecraft.advancements.AdvancementHolder;
 import net.minecraft.advancements.AdvancementNode;
 import net.minecraft.advancements.AdvancementProgress;
 import net.minecraft.advancements.DisplayInfo;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.StringSplitter;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screens.advancements.AdvancementWidgetType;
-import net.minecraft.locale.Language;
 import net.minecraft.network.chat.Component;
-import net.minecraft.network.chat.ComponentUtils;
 import net.minecraft.network.chat.FormattedText;
 import net.minecraft.network.chat.MutableComponent;
-import net.minecraft.network.chat.Style;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.FormattedCharSequence;
 import net.minecraft.util.Mth;
@@ -46,24 +42,22 @@ import org.jetbrains.annotations.Nullable;
 public class AdvancementReloadedWidget {
   private static final ResourceLocation TITLE_BOX_TEXTURE = ResourceLocation
       .withDefaultNamespace("advancements/title_box");
-
-  // CHECKSTYLE:OFF
-  private static final int[] SPLIT_OFFSET_CANDIDATES = new int[] { 0, 10, -10, 25, -25 };
-  // CHECKSTYLE:ON
+  private static final int BADGE_COLOR = 0xFFFFFFFF;
+  private static final int BADGE_COMPLETED_COLOR = 0xFF55FF55;
 
   private final AdvancementReloadedTab tab;
   private final AdvancementNode advancement;
   private final DisplayInfo display;
-  private final FormattedCharSequence title;
-  private final int width;
-  private final List<FormattedCharSequence> description;
   private final Minecraft client;
   @Nullable
+  private TooltipLayout tooltipLayout;
+  @Nullable
   private AdvancementReloadedWidget parent;
   private final List<AdvancementReloadedWidget> children = Lists.newArrayList();
   @Nullable
   private AdvancementProgress progress;
-  private List<ReloadedCriterionProgress> steps;
+  private final CriterionSteps steps;
+  private int progressVersion;
   private final int x;
   private final int y;
 
@@ -73,8 +67,9 @@ public class AdvancementReloadedWidget {
    * and a DisplayInfo as parameters, and initializes the widget with the given
    * data.
    * <p>
-   * The constructor calculates the position and size of the widget, renders the
-   * title and description, and handles user clicks.
+   * The constructor only calculates the position of the widget. The text
+   * layout of its tooltip, which also gives the width of the widget, is
+   * computed the first time it is needed, see {@link TooltipLayout}.
    * </p>
    * <p>
    * The constructor also initializes the list of children and the list of steps
@@ -93,24 +88,22 @@ public class AdvancementReloadedWidget {
     this.advancement = advancement;
     this.display = display;
     this.client = client;
-    this.title = Language.getInstance().getVisualOrder(client.font.substrByWidth(display.getTitle(), 163));
     this.x = Mth.floor(display.getX() * 28.0F);
     this.y = Mth.floor(display.getY() * 27.0F);
-    final int i = this.getProgressWidth();
-    int j = 29 + client.font.width(this.title) + i;
-    this.description = Language.getInstance()
-        .getVisualOrder(this.wrapDescription(ComponentUtils.mergeStyles(display.getDescription().copy(),
-            Style.EMPTY.withColor(display.getType().getChatColor())), j));
-
-    for (final FormattedCharSequence orderedText : this.description) {
-      j = Math.max(j, client.font.width(orderedText));
-    }
+    this.steps = new CriterionSteps(advancement);
+  }
 
-    if (this.progress != null) {
-      this.setSteps(this.progress);
+  /**
+   * Gets the text layout of the tooltip, computing it on the first call and
+   * again when the language changed.
+   *
+   * @return the tooltip layout of this widget
+   */
+  private TooltipLayout getTooltipLayout() {
+    if (this.tooltipLayout == null || !this.tooltipLayout.matches(this.client)) {
+      this.tooltipLayout = TooltipLayout.compute(this.client, this.display, this.getProgressWidth());
     }
-
-    this.width = j + 3 + 5;
+    return this.tooltipLayout;
   }
 
   /**
@@ -136,85 +129,38 @@ public class AdvancementReloadedWidget {
   }
 
   /**
-   * Gets the maximum width of the given lines when split by the given
-   * StringSplitter.
-   *
-   * @param strSplitter the StringSplitter to split the lines with
-   * @param lines       the lines to get the maximum width of
-   * @return the maximum width of the lines
-   */
-  private static float getMaxWidth(final StringSplitter strSplitter, final List<FormattedText> lines) {
-    Objects.requireNonNull(strSplitter);
-    return (float) lines.stream().mapToDouble(strSplitter::stringWidth).max().orElse(0.0D);
-  }
-
-  /**
-   * Wraps the given description to fit the given width.
-   * This method works by splitting the description into lines and adjusting the
-   * width of each line until the description fits the given width.
-   * The method attempts to find the best width for the description by trying out
-   * different offset values and selecting the one that results in the smallest
-   * difference between the actual width and the given width.
-   * If no suitable offset is found, the method returns the original list of
-   * lines.
+   * Finds the holder of the parent widget of this widget.
    * <p>
-   * The method is used to wrap the description of an advancement in the
-   * advancement tree.
+   * The parent widget is the widget representing the closest ancestor of this
+   * advancement that has a display. Ancestors without a display are skipped,
+   * as they are never rendered in the tab. If no such ancestor exists, the
+   * method returns null.
    * </p>
    *
-   * @param text  the description text
-   * @param width the width to wrap the text to
-   * @return the wrapped description
+   * @return the holder of the parent widget, or null if this widget has no
+   *         parent
    */
-  private List<FormattedText> wrapDescription(final Component text, final int width) {
-    final StringSplitter strSplitter = this.client.font.getSplitter();
-    List<FormattedText> list = null;
-    float f = Float.MAX_VALUE;
-    final int[] var6 = SPLIT_OFFSET_CANDIDATES;
-    final int var7 = var6.length;
-
-    for (int var8 = 0; var8 < var7; ++var8) {
-      final int i = var6[var8];
-      final List<FormattedText> list2 = strSplitter.splitLines(text, width - i, Style.EMPTY);
-      final float g = Math.abs(getMaxWidth(strSplitter, list2) - (float) width);
-      if (g <= 10.0F) {
-        return list2;
-      }
-
-      if (g < f) {
-        f = g;
-        list = list2;
-      }
-    }
-
-    return list;
+  @Nullable
+  public AdvancementHolder getParentHolder() {
+    return getParentHolder(this.advancement);
   }
 
   /**
-   * Finds the parent widget of the given advancement node.
-   * <p>
-   * The parent widget is the widget representing the parent of the given
-   * advancement node. The parent advancement node is found by traversing the
-   * tree of advancements up until an advancement with a display is found, or
-   * until the root of the tree is reached. If no parent advancement with a
-   * display is found, the method returns null.
-   * </p>
+   * Finds the holder of the closest ancestor of the given advancement that has
+   * a display, the parent of its widget whether the widget is built or not.
    *
-   * @param advancement the advancement node to find the parent of
-   * @return the parent widget of the given advancement node, or null if no such
-   *         parent exists
+   * @param advancement the advancement to find the parent of
+   * @return the holder of the closest displayed ancestor, or null if there is
+   *         none
    */
   @Nullable
-  private AdvancementReloadedWidget getParent(AdvancementNode advancement) {
-    do {
-      advancement = advancement.parent();
-    } while (advancement != null && advancement.advancement().display().isEmpty());
-
-    if (advancement != null && !advancement.advancement().display().isEmpty()) {
-      return this.tab.getWidget(advancement.holder());
-    } else {
-      return null;
+  static AdvancementHolder getParentHolder(final AdvancementNode advancement) {
+    AdvancementNode node = advancement.parent();
+    while (node != null && node.advancement().display().isEmpty()) {
+      node = node.parent();
     }
+
+    return node == null ? null : node.holder();
   }
 
   /**
@@ -238,60 +184,29 @@ public class AdvancementReloadedWidget {
 
   /**
    * Returns the list of {@link ReloadedCriterionProgress} for this widget's
-   * criteria. The list is in the order of the criteria in the advancement JSON.
+   * criteria. The remaining criteria are listed first, then the obtained ones,
+   * see {@link #setSteps(AdvancementProgress)}.
    *
    * @return the list of {@link ReloadedCriterionProgress} for this widget's
    *         criteria
    */
   public List<ReloadedCriterionProgress> getSteps() {
-    return this.steps;
+    return this.steps.asList();
   }
 
   /**
-   * Renders lines connecting this widget to its parent, if any.
-   *
-   * @param context the GUI graphics context to render to
-   * @param x       the x-coordinate of the widget
-   * @param y       the y-coordinate of the widget
-   * @param border  whether to render a border around the connecting lines
-   */
-  public void renderLines(final GuiGraphics context, final int x, final int y, final boolean border) {
-    if (this.parent != null) {
-      final int i = x + this.parent.x + 13;
-      final int j = x + this.parent.x + 26 + 4;
-      final int k = y + this.parent.y + 13;
-      final int l = x + this.x + 13;
-      final int m = y + this.y + 13;
-      final int n = border ? -16777216 : -1;
-      if (border) {
-        context.hLine(j, i, k - 1, n);
-        context.hLine(j + 1, i, k, n);
-        context.hLine(j, i, k + 1, n);
-        context.hLine(l, j - 1, m - 1, n);
-        context.hLine(l, j - 1, m, n);
-        context.hLine(l, j - 1, m + 1, n);
-        context.vLine(j - 1, m, k, n);
-        context.vLine(j + 1, m, k, n);
-      } else {
-        context.hLine(j, i, k, n);
-        context.hLine(l, j, m, n);
-        context.vLine(j, m, k, n);
-      }
-    }
-    for (final AdvancementReloadedWidget advancementWidget : this.children)
-      advancementWidget.renderLines(context, x, y, border);
-  }
-
-  /**
-   * Renders this widget, including its icon and connecting lines to any
-   * children, if any. The widget is only rendered if the advancement is not
-   * hidden or if the player has completed the advancement.
+   * Renders this widget frame and icon. The widget is only rendered if the
+   * advancement is not hidden or if the player has completed the advancement.
+   * <p>
+   * This method does not render the children of the widget: the tab only calls
+   * it for the widgets in its visible area.
+   * </p>
    *
    * @param context the GUI graphics context to render to
    * @param x       the x-coordinate of the widget
    * @param y       the y-coordinate of the widget
    */
-  public void renderWidgets(final GuiGraphics context, final int x, final int y) {
+  public void renderWidget(final GuiGraphics context, final int x, final int y) {
     if (!this.display.isHidden() || (this.progress != null && this.progress.isDone())) {
       final AdvancementWidgetType advancementObtainedStatus;
       final float f = (this.progress == null) ? 0.0F : this.progress.getPercent();
@@ -302,10 +217,28 @@ public class AdvancementReloadedWidget {
       }
       context.blitSprite(advancementObtainedStatus.frameSprite(this.display.getType()), x + this.x + 3,
           y + this.y, 26, 26);
-      context.renderFakeItem(this.display.getIcon(), x + this.x + 8, y + this.y + 5);
+      IconAtlas.getInstance().renderIcon(context, this.display.getIcon(), x + this.x + 8, y + this.y + 5);
+      this.renderBadge(context, x, y);
+    }
+  }
+
+  // Draws the completion of the subtree of this widget in the bottom right
+  // corner of its frame, at half size, if it has children
+  private void renderBadge(final GuiGraphics context, final int x, final int y) {
+    final CompletionTree<AdvancementHolder> completion = this.tab.getCompletion();
+    final int total = completion.getTotal(this.advancement.holder());
+    if (total <= 1) {
+      return;
     }
-    for (final AdvancementReloadedWidget advancementWidget : this.children)
-      advancementWidget.renderWidgets(context, x, y);
+
+    final int completed = completion.getCompleted(this.advancement.holder());
+    final String badge = completed + "/" + total;
+    context.pose().pushPose();
+    context.pose().translate(x + this.x + 3 + 26 - 2 - this.client.font.width(badge) / 2.0F,
+        y + this.y + 26 - 2 - this.client.font.lineHeight / 2.0F, 200.0F);
+    context.pose().scale(0.5F, 0.5F, 1.0F);
+    context.drawString(this.client.font, badge, 0, 0, completed == total ? BADGE_COMPLETED_COLOR : BADGE_COLOR);
+    context.pose().popPose();
   }
 
   /**
@@ -314,7 +247,27 @@ public class AdvancementReloadedWidget {
    * @return the width of the widget
    */
   public int getWidth() {
-    return this.width;
+    return this.getTooltipLayout().getWidth();
+  }
+
+  /**
+   * Gets the tab this widget belongs to.
+   *
+   * @return the tab of this widget
+   */
+  public AdvancementReloadedTab getTab() {
+    return this.tab;
+  }
+
+  /**
+   * Gets the version of the progress of this widget, incremented each time the
+   * progress is set. It is used to know when a layout depending on the
+   * progress must be computed again.
+   *
+   * @return the version of the progress of this widget
+   */
+  public int getProgressVersion() {
+    return this.progressVersion;
   }
 
   /**
@@ -322,56 +275,33 @@ public class AdvancementReloadedWidget {
    * <p>
    * This method also calls
    * {@link #setSteps(AdvancementProgress)} to update the steps of this widget
-   * based on the given progress.
+   * based on the given progress, and invalidates the rendered area of this
+   * widget in the tab.
    * </p>
    *
    * @param progress the progress to set
    */
   public void setProgress(final AdvancementProgress progress) {
     this.progress = progress;
+    this.progressVersion++;
     this.setSteps(progress);
+    this.tab.invalidateWidget(this);
   }
 
   /**
    * Sets the steps of this widget.
    * <p>
-   * This method gets the remaining and completed criteria from the given
-   * progress,
-   * and creates a list of {@link ReloadedCriterionProgress} objects from the
-   * criteria. If the configuration option for alphabetical ordering is enabled,
-   * the criteria are sorted alphabetically, and the unobtained and obtained
-   * criteria are sorted separately.
-   * </p>
-   * <p>
-   * The resulting list of steps is stored in the {@link #steps} field.
+   * The steps are kept across calls, only the criteria whose completion changed
+   * are moved between the remaining and obtained criteria, see
+   * {@link CriterionSteps}. The remaining criteria are listed before the
+   * obtained ones, each sorted alphabetically if the configuration option for
+   * alphabetical ordering is enabled.
    * </p>
    *
    * @param progress the progress to get the steps from
    */
   public void setSteps(final AdvancementProgress progress) {
-    final List<ReloadedCriterionProgress> steps = new ArrayList<>();
-    Iterable<String> remainingCriteriaIterable = progress.getRemainingCriteria();
-    Iterable<String> completedCriteriaIterable = progress.getCompletedCriteria();
-
-    if (Configuration.criteriasAlphabeticOrder) {
-      final List<String> unobtainedList = new ArrayList<>();
-      final List<String> obtainedList = new ArrayList<>();
-      remainingCriteriaIterable.forEach(unobtainedList::add);
-      completedCriteriaIterable.forEach(obtainedList::add);
-      unobtainedList.sort(String::compareToIgnoreCase);
-      obtainedList.sort(String::compareToIgnoreCase);
-      remainingCriteriaIterable = unobtainedList;
-      completedCriteriaIterable = obtainedList;
-    }
-
-    remainingCriteriaIterable.forEach((criterion) -> {
-      steps.add(new ReloadedCriterionProgress(this.advancement, progress, criterion));
-    });
-    completedCriteriaIterable.forEach((criterion) -> {
-      steps.add(new ReloadedCriterionProgress(this.advancement, progress, criterion));
-    });
-
-    this.steps = steps;
+    this.steps.update(progress);
   }
 
   /**
@@ -380,10 +310,11 @@ public class AdvancementReloadedWidget {
    * This method is used to build the tree of widgets in the screen.
    * </p>
    *
+   * @param index  the index of the child among the children of this widget
    * @param widget the widget to add as a child of this widget
    */
-  public void addChild(final AdvancementReloadedWidget widget) {
-    this.children.add(widget);
+  public void addChild(final int index, final AdvancementReloadedWidget widget) {
+    this.children.add(index, widget);
   }
 
   /**
@@ -406,25 +337,29 @@ public class AdvancementReloadedWidget {
     final AdvancementWidgetType advancementObtainedStatus2;
     final AdvancementWidgetType advancementObtainedStatus3;
     final int m;
-    final boolean bl = (x + originX + this.x + this.width + 26 >= (this.tab.getScreen()).width);
+    final TooltipLayout layout = this.getTooltipLayout();
+    final int width = layout.getWidth();
+    final FormattedCharSequence title = layout.getTitle();
+    final List<FormattedCharSequence> description = layout.getDescription();
+    final boolean bl = (x + originX + this.x + width + 26 >= (this.tab.getScreen()).width);
     final Component text = (this.progress == null) ? null : this.progress.getProgressText();
     final int i = (text == null) ? 0 : this.client.font.width(text);
     Objects.requireNonNull(this.client.font);
-    final boolean bl2 = (113 - originY - this.y - 26 <= 6 + this.description.size() * 9);
+    final boolean bl2 = (113 - originY - this.y - 26 <= 6 + description.size() * 9);
     final float f = (this.progress == null) ? 0.0F : this.progress.getPercent();
-    int j = Mth.floor(f * this.width);
+    int j = Mth.floor(f * width);
     if (f >= 1.0F) {
-      j = this.width / 2;
+      j = width / 2;
       advancementObtainedStatus = AdvancementWidgetType.OBTAINED;
       advancementObtainedStatus2 = AdvancementWidgetType.OBTAINED;
       advancementObtainedStatus3 = AdvancementWidgetType.OBTAINED;
     } else if (j < 2) {
-      j = this.width / 2;
+      j = width / 2;
       advancementObtainedStatus = AdvancementWidgetType.UNOBTAINED;
       advancementObtainedStatus2 = AdvancementWidgetType.UNOBTAINED;
       advancementObtainedStatus3 = AdvancementWidgetType.UNOBTAINED;
-    } else if (j > this.width - 2) {
-      j = this.width / 2;
+    } else if (j > width - 2) {
+      j = width / 2;
       advancementObtainedStatus = AdvancementWidgetType.OBTAINED;
       advancementObtainedStatus2 = AdvancementWidgetType.OBTAINED;
       advancementObtainedStatus3 = AdvancementWidgetType.UNOBTAINED;
@@ -433,50 +368,52 @@ public class AdvancementReloadedWidget {
       advancementObtainedStatus2 = AdvancementWidgetType.UNOBTAINED;
       advancementObtainedStatus3 = AdvancementWidgetType.UNOBTAINED;
     }
-    final int k = this.width - j;
+    final int k = width - j;
     RenderSystem.enableBlend();
     final int l = originY + this.y;
     if (bl) {
-      m = originX + this.x - this.width + 26 + 6;
+      m = originX + this.x - width + 26 + 6;
     } else {
       m = originX + this.x;
     }
     Objects.requireNonNull(this.client.font);
-    final int n = 32 + this.description.size() * 9;
-    if (!this.description.isEmpty())
+    final int n = 32 + description.size() * 9;
+    if (!description.isEmpty())
       if (bl2) {
-        context.blitSprite(TITLE_BOX_TEXTURE, m, l + 26 - n, this.width, n);
+        context.blitSprite(TITLE_BOX_TEXTURE, m, l + 26 - n, width, n);
       } else {
-        context.blitSprite(TITLE_BOX_TEXTURE, m, l, this.width, n);
+        context.blitSprite(TITLE_BOX_TEXTURE, m, l, width, n);
       }
     context.blitSprite(advancementObtainedStatus.boxSprite(), 200, 26, 0, 0, m, l, j, 26);
     context.blitSprite(advancementObtainedStatus2.boxSprite(), 200, 26, 200 - k, 0, m + j, l, k, 26);
     context.blitSprite(advancementObtainedStatus3.frameSprite(this.display.getType()), originX + this.x + 3,
         originY + this.y, 26, 26);
     if (bl) {
-      context.drawString(this.client.font, this.title, m + 5, originY + this.y + 9, -1);
+      context.drawString(this.client.font, title, m + 5, originY + this.y + 9, -1);
       if (text != null)
         context.drawString(this.client.font, text, originX + this.x - i, originY + this.y + 9, -1);
     } else {
-      context.drawString(this.client.font, this.title, originX + this.x + 32, originY + this.y + 9, -1);
+      context.drawString(this.client.font, title, originX + this.x + 32, originY + this.y + 9, -1);
       if (text != null)
-        context.drawString(this.client.font, text, originX + this.x + this.width - i - 5,
+        context.drawString(this.client.font, text, originX + this.x + width - i - 5,
             originY + this.y + 9, -1);
     }
     if (bl2) {
-      for (int o = 0; o < this.description.size(); o++) {
+      for (int o = 0; o < description.size(); o++) {
         Objects.requireNonNull(this.client.font);
-        context.drawString(this.client.font, this.description.get(o), m + 5, l + 26 - n + 7 + o * 9, -5592406,
+        context.drawString(this.client.font, description.get(o), m + 5, l + 26 - n + 7 + o * 9, -5592406,
             false);
       }
     } else {
-      for (int o = 0; o < this.description.size(); o++) {
+      for (int o = 0; o < description.size(); o++) {
         Objects.requireNonNull(this.client.font);
-        context.drawString(this.client.font, this.description.get(o), m + 5, originY + this.y + 9 + 17 + o * 9,
+        context.drawString(this.client.font, description.get(o), m + 5, originY + this.y + 9 + 17 + o * 9,
             -5592406, false);
       }
     }
-    context.renderFakeItem(this.display.getIcon(), originX + this.x + 8, originY + this.y + 5);
+    IconAtlas.getInstance().renderIcon(context, this.display.getIcon(), originX + this.x + 8,
+        originY + this.y + 5);
+    IconAtlas.getInstance().flush(context);
   }
 
   /**
@@ -519,22 +456,29 @@ public class AdvancementReloadedWidget {
   }
 
   /**
-   * Adds the widget to the tree, if it has not been added already.
+   * Attaches this widget to the given parent widget.
    * <p>
-   * This method first checks if the widget has been added to the tree already
-   * by checking if the parent is null. If the parent is null, the method then
-   * gets the parent widget of the advancement widget and adds itself to the
-   * parent.
+   * This method is used by the tab to build the tree of widgets. The widget is
+   * only attached once: if a parent is already set, the call is ignored.
    * </p>
+   *
+   * @param parent the parent widget to attach this widget to
+   * @param index  the index of this widget among the children of the parent
    */
-  public void addToTree() {
-    if (this.parent == null && this.advancement.parent() != null) {
-      this.parent = this.getParent(this.advancement);
-      if (this.parent != null) {
-        this.parent.addChild(this);
-      }
+  public void attachTo(final AdvancementReloadedWidget parent, final int index) {
+    if (this.parent == null) {
+      this.parent = parent;
+      this.parent.addChild(index, this);
     }
+  }
 
+  /**
+   * Whether this widget has been attached to a parent widget.
+   *
+   * @return {@code true} if this widget has a parent, {@code false} otherwise
+   */
+  public boolean hasParent() {
+    return this.parent != null;
   }
 
   /**
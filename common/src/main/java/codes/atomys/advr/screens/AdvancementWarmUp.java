@@ -0,0 +1,210 @@
+package codes.atomys.advr.screens;
+
+import codes.atomys.advr.config.Configuration;
+import codes.atomys.advr.utils.Utils;
+import com.google.common.collect.Maps;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import net.minecraft.Util;
+import net.minecraft.advancements.AdvancementHolder;
+import net.minecraft.advancements.AdvancementNode;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientAdvancements;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Builds the {@link AdvancementModel} in the background after the
+ * advancements are synchronized on join, so the first opening of the
+ * advancement screen is as fast as the following ones.
+ *
+ * <p>
+ * The warm-up runs in two steps:
+ * </p>
+ * <ol>
+ * <li>On a worker thread, the tabs are assigned: the roots with a display
+ * become tabs, their sort keys are computed and the tasks are grouped under the
+ * tab of their root. The result is published to the render thread as an
+ * immutable {@link Plan}.</li>
+ * <li>On the render thread, the tabs and widgets of the plan are created a few
+ * at a time on each client tick, within {@link #TICK_BUDGET_NANOS}. Adding a
+ * widget updates its tab, which is read while rendering, so this step can not
+ * run on a worker thread. The widgets of a tab are only built when it is
+ * first selected, see {@link AdvancementReloadedTab#materialize()}, and the
+ * text of the tooltips is laid out when first hovered, see
+ * {@link TooltipLayout}.</li>
+ * </ol>
+ *
+ * <p>
+ * Once the plan is done, the model is registered as the listener of the
+ * advancement handler, which replays the progress of the advancements. If the
+ * screen is opened before, it registers the model itself and the advancements
+ * not created yet are created right away. Either way the warm-up stops.
+ * </p>
+ */
+public final class AdvancementWarmUp {
+  // Time spent creating widgets on each client tick, 2 ms out of the 50 ms of
+  // a tick
+  private static final long TICK_BUDGET_NANOS = 2_000_000L;
+  private static final Deque<AdvancementNode> PENDING = new ArrayDeque<>();
+
+  // Incremented on each synchronization, to drop the plans of previous ones
+  private static int generation;
+  @Nullable
+  private static ClientAdvancements handler;
+  @Nullable
+  private static AdvancementModel model;
+
+  // Private constructor to prevent instantiation
+  private AdvancementWarmUp() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Starts warming up the model of the given advancement handler, after it
+   * received the advancements of the player on join.
+   * <p>
+   * This method must be called on the render thread. Nothing is done if the
+   * model of the handler is already registered as its listener, as it then
+   * receives the synchronization as deltas.
+   * </p>
+   *
+   * @param advancements the advancement handler which was reset
+   */
+  public static void start(final ClientAdvancements advancements) {
+    cancel();
+    final AdvancementModel target = AdvancementModel.prepare(advancements);
+    if (target.isBound()) {
+      return;
+    }
+
+    // The tree is only modified on the render thread, so the worker receives a
+    // copy of its nodes. The nodes themselves are immutable.
+    final List<AdvancementNode> roots = List.copyOf(advancements.getTree().roots());
+    final List<AdvancementNode> nodes = List.copyOf(advancements.getTree().nodes());
+    final boolean sortTabs = Configuration.get().isTabsAlphabeticOrder();
+    final Collator collator = AdvancementModel.createCollator();
+    final int startedGeneration = generation;
+
+    CompletableFuture.supplyAsync(() -> Plan.compute(roots, nodes, sortTabs, collator), Util.backgroundExecutor())
+        .thenAcceptAsync(plan -> publish(startedGeneration, advancements, target, plan), Minecraft.getInstance())
+        .exceptionally(throwable -> {
+          Utils.LOGGER.warn("Failed to warm up the advancements", throwable);
+          return null;
+        });
+  }
+
+  /**
+   * Stops the running warm-up, if any. The part of the model already built is
+   * kept.
+   */
+  public static void cancel() {
+    generation++;
+    handler = null;
+    model = null;
+    PENDING.clear();
+  }
+
+  /**
+   * Creates the next tabs and widgets of the running warm-up, until the tick
+   * budget is spent. Called on the render thread at the end of each client
+   * tick.
+   */
+  public static void tick() {
+    if (model == null) {
+      return;
+    }
+
+    if (!AdvancementModel.isCurrent(model) || model.isBound()) {
+      cancel();
+      return;
+    }
+
+    final long deadline = Util.getNanos() + TICK_BUDGET_NANOS;
+    while (!PENDING.isEmpty() && Util.getNanos() < deadline) {
+      final AdvancementNode node = PENDING.poll();
+      if (node.parent() == null) {
+        model.addRoot(node);
+      } else {
+        model.addTask(node);
+      }
+    }
+
+    if (PENDING.isEmpty()) {
+      AdvancementModel.get(handler);
+      cancel();
+    }
+  }
+
+  // Queues the nodes of the plan, if it belongs to the latest synchronization
+  // and its model was not replaced in the meantime
+  private static void publish(final int startedGeneration, final ClientAdvancements advancements,
+      final AdvancementModel target, final Plan plan) {
+    if (startedGeneration != generation || !AdvancementModel.isCurrent(target) || target.isBound()) {
+      return;
+    }
+
+    target.seedSortKeys(plan.sortKeys);
+    handler = advancements;
+    model = target;
+    PENDING.addAll(plan.nodes);
+  }
+
+  /**
+   * The tab assignment computed by the worker thread: the nodes to add to the
+   * model in order, each root being followed by the tasks of its tab, and the
+   * sort keys of the tabs.
+   */
+  private static final class Plan {
+    private final List<AdvancementNode> nodes;
+    private final Map<AdvancementHolder, CollationKey> sortKeys;
+
+    private Plan(final List<AdvancementNode> nodes, final Map<AdvancementHolder, CollationKey> sortKeys) {
+      this.nodes = nodes;
+      this.sortKeys = sortKeys;
+    }
+
+    // Keeps the order of the tree within each tab, like the replay of the
+    // handler, and orders the tabs like the model does
+    private static Plan compute(final Collection<AdvancementNode> roots, final Collection<AdvancementNode> nodes,
+        final boolean sortTabs, final Collator collator) {
+      final Map<AdvancementHolder, CollationKey> sortKeys = Maps.newHashMap();
+      final Map<AdvancementHolder, List<AdvancementNode>> tasks = Maps.newHashMap();
+      final List<AdvancementNode> tabs = new ArrayList<>();
+      for (final AdvancementNode root : roots) {
+        if (root.advancement().display().isPresent()) {
+          tabs.add(root);
+          tasks.put(root.holder(), new ArrayList<>());
+          sortKeys.put(root.holder(), collator.getCollationKey(AdvancementModel.sortKey(root)));
+        }
+      }
+
+      for (final AdvancementNode node : nodes) {
+        if (node.parent() != null && node.advancement().display().isPresent()) {
+          final List<AdvancementNode> tabTasks = tasks.get(node.root().holder());
+          if (tabTasks != null) {
+            tabTasks.add(node);
+          }
+        }
+      }
+
+      if (sortTabs) {
+        tabs.sort(Comparator.comparing(root -> sortKeys.get(root.holder())));
+      }
+
+      final List<AdvancementNode> ordered = new ArrayList<>(nodes.size());
+      for (final AdvancementNode root : tabs) {
+        ordered.add(root);
+        ordered.addAll(tasks.get(root.holder()));
+      }
+      return new Plan(List.copyOf(ordered), Map.copyOf(sortKeys));
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package codes.atomys.advr.screens;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The number of advancements and of completed advancements in each subtree of
+ * a tab, kept up to date as the advancements are added and completed.
+ *
+ * <p>
+ * Each advancement holds the counts of its subtree, itself included, and a
+ * link to its parent in the tab. Adding or completing an advancement updates
+ * the counts of its ancestors only, so the completion of a tab or of a branch
+ * is read in constant time, without walking the progress of every advancement
+ * on each frame.
+ * </p>
+ *
+ * <p>
+ * The advancements may be added in any order. An advancement added before its
+ * parent waits in a pending list keyed by its parent, as the widgets of a tab
+ * do, and is adopted when the parent is added: its counts are then added to
+ * every ancestor of its parent.
+ * </p>
+ *
+ * @param <K> the type of the keys of the advancements
+ */
+final class CompletionTree<K> {
+  private final Map<K, Entry> entries = Maps.newHashMap();
+  private final Map<K, List<Entry>> pendingChildren = Maps.newHashMap();
+
+  /**
+   * Adds the given advancement to the tree, not completed, if it was not added
+   * yet.
+   *
+   * @param advancement the advancement to add
+   * @param parent      the parent of the advancement, or null if the
+   *                    advancement is the root of the tab
+   */
+  void add(final K advancement, @Nullable final K parent) {
+    if (this.entries.containsKey(advancement)) {
+      return;
+    }
+
+    final Entry entry = new Entry();
+    this.entries.put(advancement, entry);
+    if (parent != null && this.entries.containsKey(parent)) {
+      entry.parent = this.entries.get(parent);
+    } else if (parent != null) {
+      this.pendingChildren.computeIfAbsent(parent, k -> Lists.newArrayList()).add(entry);
+    }
+    for (Entry ancestor = entry; ancestor != null; ancestor = ancestor.parent) {
+      ancestor.total++;
+    }
+
+    final List<Entry> waiting = this.pendingChildren.remove(advancement);
+    if (waiting != null) {
+      for (final Entry child : waiting) {
+        child.parent = entry;
+        for (Entry ancestor = entry; ancestor != null; ancestor = ancestor.parent) {
+          ancestor.total += child.total;
+          ancestor.completed += child.completed;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets whether the given advancement is completed, and updates the counts of
+   * its ancestors if it changed.
+   *
+   * @param advancement the advancement with changed progress
+   * @param done        whether the advancement is completed
+   * @return true if the completion of the advancement changed, false otherwise
+   */
+  boolean setDone(final K advancement, final boolean done) {
+    final Entry entry = this.entries.get(advancement);
+    if (entry == null || entry.done == done) {
+      return false;
+    }
+
+    entry.done = done;
+    final int delta = done ? 1 : -1;
+    for (Entry ancestor = entry; ancestor != null; ancestor = ancestor.parent) {
+      ancestor.completed += delta;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of completed advancements in the subtree of the given
+   * advancement, itself included.
+   *
+   * @param advancement the root of the subtree
+   * @return the number of completed advancements, or 0 if the advancement was
+   *         not added
+   */
+  int getCompleted(final K advancement) {
+    final Entry entry = this.entries.get(advancement);
+    return entry == null ? 0 : entry.completed;
+  }
+
+  /**
+   * Gets the number of advancements in the subtree of the given advancement,
+   * itself included.
+   *
+   * @param advancement the root of the subtree
+   * @return the number of advancements, or 0 if the advancement was not added
+   */
+  int getTotal(final K advancement) {
+    final Entry entry = this.entries.get(advancement);
+    return entry == null ? 0 : entry.total;
+  }
+
+  /**
+   * The counts of the subtree of an advancement.
+   */
+  private static final class Entry {
+    @Nullable
+    private Entry parent;
+    private boolean done;
+    private int completed;
+    private int total;
+  }
+}
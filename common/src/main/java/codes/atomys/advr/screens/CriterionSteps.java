@@ -0,0 +1,195 @@
+package codes.atomys.advr.screens;
+
+import codes.atomys.advr.ReloadedCriterionProgress;
+import codes.atomys.advr.config.ConfigSnapshot;
+import codes.atomys.advr.config.Configuration;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import net.minecraft.advancements.AdvancementNode;
+import net.minecraft.advancements.AdvancementProgress;
+
+/**
+ * The criteria of an advancement, as displayed in the sidebar: the remaining
+ * criteria first, then the obtained ones.
+ *
+ * <p>
+ * The steps are kept by criterion name across progress updates. An update only
+ * touches the criteria whose completion changed, and moves each of them to its
+ * place in the other partition with a binary search. The order within a
+ * partition is alphabetical when
+ * {@link ConfigSnapshot#isCriteriasAlphabeticOrder()} is set, otherwise it is
+ * the order in which the criteria were first received.
+ * </p>
+ *
+ * <p>
+ * The steps are built again from scratch when the criteria of the advancement
+ * or the ordering option change.
+ * </p>
+ */
+final class CriterionSteps {
+  private final AdvancementNode advancement;
+  private final Map<String, Step> steps = Maps.newHashMap();
+  // Both sorted with the comparator of the current ordering
+  private final List<Step> remaining = Lists.newArrayList();
+  private final List<Step> obtained = Lists.newArrayList();
+  private final List<ReloadedCriterionProgress> view = new StepsView();
+  private Comparator<Step> order = byRank();
+  private boolean alphabeticOrder;
+
+  /**
+   * Creates the steps of the given advancement, without any criterion until
+   * the first progress is received.
+   *
+   * @param advancement the advancement of the steps
+   */
+  CriterionSteps(final AdvancementNode advancement) {
+    this.advancement = advancement;
+  }
+
+  /**
+   * Updates the steps from the given progress.
+   * <p>
+   * An unchanged criterion only costs a lookup by name. The steps are only
+   * allocated, and the partitions only sorted, when the steps are built again.
+   * </p>
+   *
+   * @param progress the new progress of the advancement
+   */
+  void update(final AdvancementProgress progress) {
+    if (this.alphabeticOrder == Configuration.get().isCriteriasAlphabeticOrder()) {
+      final int remainingCount = this.updateSteps(progress.getRemainingCriteria(), progress);
+      final int completedCount = remainingCount < 0 ? -1
+          : this.updateSteps(progress.getCompletedCriteria(), progress);
+      if (completedCount >= 0 && remainingCount + completedCount == this.steps.size()) {
+        return;
+      }
+    }
+    this.rebuild(progress);
+  }
+
+  /**
+   * Returns the steps, the remaining criteria first, then the obtained ones.
+   *
+   * @return an unmodifiable view of the steps
+   */
+  List<ReloadedCriterionProgress> asList() {
+    return this.view;
+  }
+
+  // Updates the steps of the given criteria and returns their number, or -1 if
+  // one of them is unknown, in which case the steps must be built again
+  private int updateSteps(final Iterable<String> criteria, final AdvancementProgress progress) {
+    int count = 0;
+    for (final String criterion : criteria) {
+      final Step step = this.steps.get(criterion);
+      if (step == null) {
+        return -1;
+      }
+      this.updateStep(step, progress);
+      count++;
+    }
+    return count;
+  }
+
+  // Updates the progress of the step, and moves it to the other partition if
+  // its completion changed
+  private void updateStep(final Step step, final AdvancementProgress progress) {
+    if (!step.progress.update(progress)) {
+      return;
+    }
+
+    final List<Step> from = step.progress.isObtained() ? this.remaining : this.obtained;
+    final List<Step> to = step.progress.isObtained() ? this.obtained : this.remaining;
+    from.remove(this.indexOf(from, step));
+    to.add(-this.indexOf(to, step) - 1, step);
+  }
+
+  // Returns the index of the step in the sorted list, or (-(insertion point)
+  // - 1) if it is not in the list
+  private int indexOf(final List<Step> list, final Step step) {
+    int low = 0;
+    int high = list.size() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int comparison = this.order.compare(list.get(middle), step);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private void rebuild(final AdvancementProgress progress) {
+    this.steps.clear();
+    this.remaining.clear();
+    this.obtained.clear();
+    this.alphabeticOrder = Configuration.get().isCriteriasAlphabeticOrder();
+    this.order = this.alphabeticOrder ? byName() : byRank();
+
+    for (final String criterion : progress.getRemainingCriteria()) {
+      this.remaining.add(this.createStep(progress, criterion));
+    }
+    for (final String criterion : progress.getCompletedCriteria()) {
+      this.obtained.add(this.createStep(progress, criterion));
+    }
+    this.remaining.sort(this.order);
+    this.obtained.sort(this.order);
+  }
+
+  private Step createStep(final AdvancementProgress progress, final String criterion) {
+    final Step step = new Step(criterion, this.steps.size(),
+        new ReloadedCriterionProgress(this.advancement, progress, criterion));
+    this.steps.put(criterion, step);
+    return step;
+  }
+
+  private static Comparator<Step> byRank() {
+    return Comparator.comparingInt(step -> step.rank);
+  }
+
+  // The rank breaks the ties between names differing only by case
+  private static Comparator<Step> byName() {
+    return Comparator.<Step, String>comparing(step -> step.name, String::compareToIgnoreCase)
+        .thenComparingInt(step -> step.rank);
+  }
+
+  /**
+   * A criterion and its rank, the order in which it was first received.
+   */
+  private static final class Step {
+    private final String name;
+    private final int rank;
+    private final ReloadedCriterionProgress progress;
+
+    private Step(final String name, final int rank, final ReloadedCriterionProgress progress) {
+      this.name = name;
+      this.rank = rank;
+      this.progress = progress;
+    }
+  }
+
+  /**
+   * A read-only view of the remaining steps followed by the obtained ones.
+   */
+  private final class StepsView extends AbstractList<ReloadedCriterionProgress> {
+    @Override
+    public ReloadedCriterionProgress get(final int index) {
+      final int remainingSize = CriterionSteps.this.remaining.size();
+      return index < remainingSize ? CriterionSteps.this.remaining.get(index).progress
+          : CriterionSteps.this.obtained.get(index - remainingSize).progress;
+    }
+
+    @Override
+    public int size() {
+      return CriterionSteps.this.remaining.size() + CriterionSteps.this.obtained.size();
+    }
+  }
+}
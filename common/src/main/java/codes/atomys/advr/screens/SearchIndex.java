@@ -0,0 +1,323 @@
+package codes.atomys.advr.screens;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An inverted index of the words of the advancements, used to search the
+ * advancements of every tab from the advancement screen.
+ *
+ * <p>
+ * The title, the description and the resolved names of the criteria of each
+ * advancement are split into lowercase words. Each word maps to the
+ * advancements containing it, with the fields it was found in. The words are
+ * kept sorted, so the words starting with a typed prefix are a contiguous range
+ * of the index: a query only reads the postings of the words it can match,
+ * whatever the number of advancements.
+ * </p>
+ *
+ * <p>
+ * To tolerate typos, each indexed word is also split into trigrams, the
+ * sequences of three characters of the word padded with a space on each side.
+ * A query word matches the indexed words sharing enough trigrams with it,
+ * scored by the Dice coefficient of their trigrams: a word starting with the
+ * query word scores 1. The advancements are ranked by the sum of the best
+ * similarity of each query word, weighted by the field it was found in, and
+ * only the best ones are kept in a bounded heap, so sorting costs nothing for
+ * the advancements which are not shown.
+ * </p>
+ *
+ * <p>
+ * The index is updated as the advancements are added to the
+ * {@link AdvancementModel}, and emptied with it. It only sees the text of the
+ * advancements, so any value can be indexed. It reuses its buffers between the
+ * queries, and must only be used from the client thread.
+ * </p>
+ *
+ * @param <T> the type of the indexed values
+ */
+final class SearchIndex<T> {
+  // The fields a word was found in, a title match ranks first
+  private static final int TITLE = 4;
+  private static final int CRITERION = 2;
+  private static final int DESCRIPTION = 1;
+  // The lowest trigram similarity for a word to match, about one typo in a
+  // word of six letters
+  private static final float MIN_SIMILARITY = 0.4F;
+
+  // The words are numbered in the order they are indexed, the trigrams and
+  // the postings are indexed by word number
+  private final NavigableMap<String, Integer> wordIds = new TreeMap<>();
+  private final List<Map<Document<T>, Integer>> postings = Lists.newArrayList();
+  private final IntList trigramCounts = new IntList();
+  private final Map<String, IntList> trigrams = Maps.newHashMap();
+  private final Map<T, Document<T>> documents = Maps.newHashMap();
+  // The number of trigrams each word shares with the query word, kept between
+  // the queries and only reset for the touched words
+  private int[] shared = new int[0];
+  private final IntList touched = new IntList();
+
+  /**
+   * Indexes the words of the given value, if it was not indexed yet.
+   *
+   * @param value       the value to index, returned by the searches
+   * @param title       the title of the value
+   * @param description the description of the value
+   * @param criteria    the names of the criteria of the value
+   */
+  void add(final T value, final String title, final String description, final Collection<String> criteria) {
+    if (this.documents.containsKey(value)) {
+      return;
+    }
+
+    final Document<T> document = new Document<>(value, title);
+    this.documents.put(value, document);
+    this.addWords(document, title, TITLE);
+    this.addWords(document, description, DESCRIPTION);
+    for (final String criterion : criteria) {
+      this.addWords(document, criterion, CRITERION);
+    }
+  }
+
+  /**
+   * Removes every advancement from the index.
+   */
+  void clear() {
+    this.wordIds.clear();
+    this.postings.clear();
+    this.trigrams.clear();
+    this.trigramCounts.clear();
+    this.documents.clear();
+    this.shared = new int[0];
+  }
+
+  /**
+   * Gets the number of indexed advancements.
+   *
+   * @return the number of advancements
+   */
+  int size() {
+    return this.documents.size();
+  }
+
+  /**
+   * Finds the advancements containing, for each word of the query, a word
+   * starting with it or close to it, ranked by similarity to the query and by
+   * the fields matching it, then by title.
+   *
+   * @param query the text typed by the player
+   * @param limit the maximum number of results
+   * @return the matching advancements, best first
+   */
+  List<T> search(final String query, final int limit) {
+    final List<String> words = tokenize(query);
+    if (words.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    // Starts from the longest word, usually the most selective one
+    words.sort(Comparator.comparingInt(String::length).reversed());
+    Map<Document<T>, Float> scores = null;
+    for (final String word : words) {
+      final Map<Document<T>, Float> matches = this.match(word, scores);
+      if (matches.isEmpty()) {
+        return List.of();
+      }
+      scores = matches;
+    }
+
+    // Keeps the best results in a heap whose head is the worst kept result
+    final Comparator<Result<T>> ranking = Comparator.<Result<T>>comparingDouble(result -> result.score)
+        .thenComparing((left, right) -> String.CASE_INSENSITIVE_ORDER.compare(right.document.title,
+            left.document.title));
+    final PriorityQueue<Result<T>> heap = new PriorityQueue<>(limit + 1, ranking);
+    scores.forEach((document, score) -> {
+      final Result<T> result = new Result<>(document, score);
+      if (heap.size() < limit) {
+        heap.add(result);
+      } else if (ranking.compare(result, heap.peek()) > 0) {
+        heap.poll();
+        heap.add(result);
+      }
+    });
+
+    final List<T> values = Lists.newArrayListWithCapacity(heap.size());
+    while (!heap.isEmpty()) {
+      values.add(heap.poll().document.value);
+    }
+    Collections.reverse(values);
+    return values;
+  }
+
+  // Scores the documents containing a word similar to the given one,
+  // restricted to the given candidates when some words were already matched.
+  // The words starting with the given one have a similarity of 1, then the
+  // trigrams shared with every word are counted in a single pass over the
+  // lists of the trigrams of the given word.
+  private Map<Document<T>, Float> match(final String word, @Nullable final Map<Document<T>, Float> candidates) {
+    final Map<Document<T>, Float> best = Maps.newHashMap();
+    for (final int id : this.wordIds.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+      this.score(best, id, 1.0F, candidates);
+    }
+
+    final List<String> grams = trigrams(word);
+    if (this.shared.length < this.postings.size()) {
+      this.shared = new int[this.postings.size()];
+    }
+    for (final String gram : grams) {
+      final IntList ids = this.trigrams.get(gram);
+      for (int i = 0; ids != null && i < ids.size; i++) {
+        if (this.shared[ids.values[i]]++ == 0) {
+          this.touched.add(ids.values[i]);
+        }
+      }
+    }
+    for (int i = 0; i < this.touched.size; i++) {
+      final int id = this.touched.values[i];
+      final float similarity = 2.0F * this.shared[id] / (grams.size() + this.trigramCounts.values[id]);
+      this.shared[id] = 0;
+      if (similarity >= MIN_SIMILARITY) {
+        this.score(best, id, similarity, candidates);
+      }
+    }
+    this.touched.clear();
+
+    if (candidates != null) {
+      best.replaceAll((document, score) -> score + candidates.get(document));
+    }
+    return best;
+  }
+
+  // Keeps for each document containing the given word its best score so far
+  private void score(final Map<Document<T>, Float> best, final int id, final float similarity,
+      @Nullable final Map<Document<T>, Float> candidates) {
+    for (final Map.Entry<Document<T>, Integer> entry : this.postings.get(id).entrySet()) {
+      if (candidates == null || candidates.containsKey(entry.getKey())) {
+        best.merge(entry.getKey(), similarity * bestField(entry.getValue()), Math::max);
+      }
+    }
+  }
+
+  private void addWords(final Document<T> document, final String text, final int field) {
+    for (final String word : tokenize(text)) {
+      final int id = this.wordIds.computeIfAbsent(word, this::addWord);
+      this.postings.get(id).merge(document, field, (left, right) -> left | right);
+    }
+  }
+
+  // Numbers a new word, indexes its trigrams and creates its postings
+  private int addWord(final String word) {
+    final int id = this.postings.size();
+    final List<String> grams = trigrams(word);
+    for (final String gram : grams) {
+      this.trigrams.computeIfAbsent(gram, key -> new IntList()).add(id);
+    }
+    this.trigramCounts.add(grams.size());
+    this.postings.add(Maps.newHashMap());
+    return id;
+  }
+
+  private static int bestField(final int mask) {
+    return Integer.highestOneBit(mask);
+  }
+
+  /**
+   * Splits the given text into lowercase words, made of letters and digits.
+   *
+   * @param text the text to split
+   * @return the words of the text, in order
+   */
+  static List<String> tokenize(final String text) {
+    final List<String> words = Lists.newArrayList();
+    final String lowerCase = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lowerCase.length(); i++) {
+      final boolean wordCharacter = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+      if (wordCharacter && start < 0) {
+        start = i;
+      } else if (!wordCharacter && start >= 0) {
+        words.add(lowerCase.substring(start, i));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  /**
+   * Splits the given word into its distinct trigrams, padded with a space on
+   * each side so the first and last letters weigh as much as the others.
+   *
+   * @param word the word to split
+   * @return the distinct trigrams of the word
+   */
+  static List<String> trigrams(final String word) {
+    final String padded = " " + word + " ";
+    final Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      grams.add(padded.substring(i, i + 3));
+    }
+    return Lists.newArrayList(grams);
+  }
+
+  /**
+   * An indexed value.
+   *
+   * @param <T> the type of the value
+   */
+  private static final class Document<T> {
+    private final T value;
+    private final String title;
+
+    private Document(final T value, final String title) {
+      this.value = value;
+      this.title = title;
+    }
+  }
+
+  /**
+   * A value matching a query, with its score.
+   *
+   * @param <T> the type of the value
+   */
+  private static final class Result<T> {
+    private final Document<T> document;
+    private final float score;
+
+    private Result(final Document<T> document, final float score) {
+      this.document = document;
+      this.score = score;
+    }
+  }
+
+  /**
+   * A growable list of ints, without boxing.
+   */
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    private void add(final int value) {
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, this.size * 2);
+      }
+      this.values[this.size++] = value;
+    }
+
+    private void clear() {
+      this.size = 0;
+    }
+  }
+}
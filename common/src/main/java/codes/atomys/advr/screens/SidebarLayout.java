@@ -0,0 +1,218 @@
+package codes.atomys.advr.screens;
+
+import codes.atomys.advr.ReloadedCriterionProgress;
+import codes.atomys.advr.config.Configuration;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.Objects;
+import net.minecraft.advancements.DisplayInfo;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.CommonColors;
+import net.minecraft.util.FormattedCharSequence;
+
+/**
+ * The text layout of the advancement criteria sidebar for a widget.
+ *
+ * <p>
+ * The title, the description and the criteria of the widget are split into
+ * lines once, and each line is stored with its position relative to the top of
+ * the sidebar content. Drawing the sidebar then only draws the stored lines,
+ * without breaking any text again.
+ * </p>
+ *
+ * <p>
+ * A layout depends on the widget and its progress, the sidebar width, the
+ * viewable height (which decides whether a scrollbar takes some of the width),
+ * the selected language and the description option. It is computed again when
+ * any of those changes, see {@link #matches}.
+ * </p>
+ */
+final class SidebarLayout {
+  // 12 (6[left]-6[right]) are the right margin
+  private static final int MARGIN = 12;
+  // 6 are the scrollbar width
+  private static final int SCROLLBAR_WIDTH = 6;
+  // 4 are the padding bottom added after each text block
+  private static final int BLOCK_PADDING = 4;
+  // 5 are the space taken by the separator line
+  private static final int SEPARATOR_HEIGHT = 5;
+  // 6 are the bottom margin
+  private static final int BOTTOM_MARGIN = 6;
+
+  private final AdvancementReloadedWidget widget;
+  private final int progressVersion;
+  private final int sidebarWidth;
+  private final int viewableHeight;
+  private final String language;
+  private final boolean displayDescription;
+  // Sorted by increasing y
+  private final List<Line> lines = Lists.newArrayList();
+  private int separatorY;
+  private int contentHeight;
+
+  private SidebarLayout(final AdvancementReloadedWidget widget, final int sidebarWidth, final int viewableHeight) {
+    this.widget = widget;
+    this.progressVersion = widget.getProgressVersion();
+    this.sidebarWidth = sidebarWidth;
+    this.viewableHeight = viewableHeight;
+    this.language = currentLanguage();
+    this.displayDescription = Configuration.get().isDisplayDescription();
+  }
+
+  /**
+   * Computes the layout of the sidebar for the given widget.
+   * <p>
+   * The text is first laid out on the whole width of the sidebar. If the
+   * content does not fit in the viewable height, it is laid out again next to
+   * the scrollbar.
+   * </p>
+   *
+   * @param font           the font used to draw the sidebar
+   * @param widget         the selected widget
+   * @param sidebarWidth   the width of the sidebar
+   * @param viewableHeight the height of the sidebar on the screen
+   * @return the layout of the sidebar
+   */
+  static SidebarLayout compute(final Font font, final AdvancementReloadedWidget widget, final int sidebarWidth,
+      final int viewableHeight) {
+    final SidebarLayout layout = new SidebarLayout(widget, sidebarWidth, viewableHeight);
+    layout.layout(font, sidebarWidth - MARGIN);
+    if (layout.contentHeight > viewableHeight) {
+      layout.layout(font, sidebarWidth - MARGIN - SCROLLBAR_WIDTH);
+    }
+    return layout;
+  }
+
+  /**
+   * Whether this layout is still valid for the given widget and sidebar size,
+   * with the current language and configuration.
+   *
+   * @param widget         the selected widget
+   * @param sidebarWidth   the width of the sidebar
+   * @param viewableHeight the height of the sidebar on the screen
+   * @return true if the layout can be reused, false if it must be computed
+   *         again
+   */
+  boolean matches(final AdvancementReloadedWidget widget, final int sidebarWidth, final int viewableHeight) {
+    return this.widget == widget
+        && this.progressVersion == widget.getProgressVersion()
+        && this.sidebarWidth == sidebarWidth
+        && this.viewableHeight == viewableHeight
+        && this.displayDescription == Configuration.get().isDisplayDescription()
+        && this.language.equals(currentLanguage());
+  }
+
+  /**
+   * Gets the height of the content of the sidebar, including its bottom
+   * margin.
+   *
+   * @return the height of the content
+   */
+  int getContentHeight() {
+    return this.contentHeight;
+  }
+
+  /**
+   * Draws the lines and the separator of the sidebar.
+   * <p>
+   * Only the lines intersecting the visible window are drawn. As the lines are
+   * stored in increasing y order, the first visible line is found with a binary
+   * search, so the cost does not depend on the number of criteria above or
+   * below the window.
+   * </p>
+   *
+   * @param context       the graphics context to draw on
+   * @param font          the font used to compute the layout
+   * @param x             the x position of the text
+   * @param y             the y position of the top of the content
+   * @param separatorEndX the x position where the separator line ends
+   * @param visibleMinY   the top of the visible window, relative to the top of
+   *                      the content
+   * @param visibleMaxY   the bottom of the visible window, relative to the top
+   *                      of the content
+   */
+  void render(final GuiGraphics context, final Font font, final int x, final int y, final int separatorEndX,
+      final int visibleMinY, final int visibleMaxY) {
+    for (int index = this.firstLineEndingAfter(visibleMinY, font.lineHeight); index < this.lines.size(); index++) {
+      final Line line = this.lines.get(index);
+      if (line.y >= visibleMaxY) {
+        break;
+      }
+      context.drawString(font, line.text, x, y + line.y, line.color, false);
+    }
+    context.hLine(x, separatorEndX, y + this.separatorY, CommonColors.LIGHT_GRAY);
+  }
+
+  // Returns the index of the first line whose bottom is below the given
+  // position, or the number of lines if there is none
+  private int firstLineEndingAfter(final int minY, final int lineHeight) {
+    int low = 0;
+    int high = this.lines.size();
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (this.lines.get(middle).y + lineHeight > minY) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  // Splits the title, the description and the criteria of the widget into
+  // lines of the given width
+  private void layout(final Font font, final int textWidth) {
+    this.lines.clear();
+    int y = 0;
+
+    final DisplayInfo display = this.widget.getAdvancement().display().get();
+    y = this.addBlock(font, this.widget.getAdvancement().name().get(), textWidth, y, CommonColors.WHITE);
+
+    final Component description = display.getDescription();
+    if (this.displayDescription && description != null) {
+      y = this.addBlock(font, description, textWidth, y, display.getType().getChatColor().getColor());
+    }
+
+    this.separatorY = y;
+    y += SEPARATOR_HEIGHT;
+
+    for (final ReloadedCriterionProgress step : this.widget.getSteps()) {
+      y = this.addBlock(font, step.getHumanCriterionName(), textWidth, y, step.getColor());
+    }
+
+    this.contentHeight = y + BOTTOM_MARGIN;
+  }
+
+  // Adds the lines of the given text, in the same way as
+  // GuiGraphics#drawWordWrap, and returns the position after the block
+  private int addBlock(final Font font, final Component text, final int textWidth, final int y, final int color) {
+    int lineY = y;
+    for (final FormattedCharSequence line : font.split(text, textWidth)) {
+      this.lines.add(new Line(line, lineY, color));
+      lineY += font.lineHeight;
+    }
+    return lineY + BLOCK_PADDING;
+  }
+
+  private static String currentLanguage() {
+    return Objects.requireNonNull(Minecraft.getInstance().getLanguageManager().getSelected());
+  }
+
+  /**
+   * A line of text of the sidebar and its position.
+   */
+  private static final class Line {
+    private final FormattedCharSequence text;
+    private final int y;
+    private final int color;
+
+    private Line(final FormattedCharSequence text, final int y, final int color) {
+      this.text = text;
+      this.y = y;
+      this.color = color;
+    }
+  }
+}
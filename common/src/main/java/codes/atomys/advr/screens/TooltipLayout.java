@@ -0,0 +1,222 @@
+package codes.atomys.advr.screens;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.minecraft.advancements.DisplayInfo;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.StringSplitter;
+import net.minecraft.client.gui.Font;
+import net.minecraft.locale.Language;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentUtils;
+import net.minecraft.network.chat.FormattedText;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.network.chat.Style;
+import net.minecraft.util.FormattedCharSequence;
+
+/**
+ * The text layout of the tooltip of an advancement widget: its title, its
+ * wrapped description and its width.
+ *
+ * <p>
+ * Most widgets are never hovered, so a widget computes its layout the first
+ * time it is needed, see {@link AdvancementReloadedWidget#getWidth()}. The
+ * wrapped descriptions are also kept in a bounded cache keyed by description,
+ * target width and language, as generated advancements often share the same
+ * description.
+ * </p>
+ */
+final class TooltipLayout {
+  // CHECKSTYLE:OFF
+  private static final int[] SPLIT_OFFSET_CANDIDATES = new int[] { 0, 10, -10, 25, -25 };
+  // CHECKSTYLE:ON
+  private static final int MAX_CACHED_DESCRIPTIONS = 1024;
+  private static final Map<DescriptionKey, List<FormattedCharSequence>> DESCRIPTIONS = new LinkedHashMap<>(16,
+      0.75F, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<DescriptionKey, List<FormattedCharSequence>> eldest) {
+      return this.size() > MAX_CACHED_DESCRIPTIONS;
+    }
+  };
+
+  private final FormattedCharSequence title;
+  private final List<FormattedCharSequence> description;
+  private final int width;
+  private final String language;
+
+  private TooltipLayout(final FormattedCharSequence title, final List<FormattedCharSequence> description,
+      final int width, final String language) {
+    this.title = title;
+    this.description = description;
+    this.width = width;
+    this.language = language;
+  }
+
+  /**
+   * Computes the tooltip layout of an advancement.
+   * <p>
+   * The description is wrapped to the width of the title and progress text,
+   * and the tooltip is widened to fit the longest line of the description.
+   * </p>
+   *
+   * @param client        the Minecraft client
+   * @param display       the display information of the advancement
+   * @param progressWidth the width of the progress text, or 0 if there is none
+   * @return the tooltip layout
+   */
+  static TooltipLayout compute(final Minecraft client, final DisplayInfo display, final int progressWidth) {
+    final Font font = client.font;
+    final String language = currentLanguage(client);
+    final FormattedCharSequence title = Language.getInstance().getVisualOrder(
+        font.substrByWidth(display.getTitle(), 163));
+    int width = 29 + font.width(title) + progressWidth;
+
+    final MutableComponent description = ComponentUtils.mergeStyles(display.getDescription().copy(),
+        Style.EMPTY.withColor(display.getType().getChatColor()));
+    final DescriptionKey key = new DescriptionKey(description, width, language);
+    List<FormattedCharSequence> lines = DESCRIPTIONS.get(key);
+    if (lines == null) {
+      lines = Language.getInstance().getVisualOrder(wrapDescription(font.getSplitter(), description, width));
+      DESCRIPTIONS.put(key, lines);
+    }
+
+    for (final FormattedCharSequence line : lines) {
+      width = Math.max(width, font.width(line));
+    }
+
+    return new TooltipLayout(title, lines, width + 3 + 5, language);
+  }
+
+  /**
+   * Drops the cached descriptions, as they are wrapped with the glyphs and
+   * translations of the previous resources.
+   */
+  static void clearCache() {
+    DESCRIPTIONS.clear();
+  }
+
+  /**
+   * Whether this layout was computed in the current language.
+   *
+   * @param client the Minecraft client
+   * @return true if the layout can be reused, false otherwise
+   */
+  boolean matches(final Minecraft client) {
+    return this.language.equals(currentLanguage(client));
+  }
+
+  /**
+   * Gets the title, cut to fit the tooltip.
+   *
+   * @return the title
+   */
+  FormattedCharSequence getTitle() {
+    return this.title;
+  }
+
+  /**
+   * Gets the lines of the wrapped description.
+   *
+   * @return the lines of the description
+   */
+  List<FormattedCharSequence> getDescription() {
+    return this.description;
+  }
+
+  /**
+   * Gets the width of the tooltip.
+   *
+   * @return the width of the tooltip
+   */
+  int getWidth() {
+    return this.width;
+  }
+
+  /**
+   * Gets the maximum width of the given lines when split by the given
+   * StringSplitter.
+   *
+   * @param strSplitter the StringSplitter to split the lines with
+   * @param lines       the lines to get the maximum width of
+   * @return the maximum width of the lines
+   */
+  private static float getMaxWidth(final StringSplitter strSplitter, final List<FormattedText> lines) {
+    Objects.requireNonNull(strSplitter);
+    return (float) lines.stream().mapToDouble(strSplitter::stringWidth).max().orElse(0.0D);
+  }
+
+  /**
+   * Wraps the given description to fit the given width.
+   * This method works by splitting the description into lines and adjusting the
+   * width of each line until the description fits the given width.
+   * The method attempts to find the best width for the description by trying out
+   * different offset values and selecting the one that results in the smallest
+   * difference between the actual width and the given width.
+   * If no suitable offset is found, the method returns the original list of
+   * lines.
+   *
+   * @param strSplitter the StringSplitter of the font
+   * @param text        the description text
+   * @param width       the width to wrap the text to
+   * @return the wrapped description
+   */
+  private static List<FormattedText> wrapDescription(final StringSplitter strSplitter, final Component text,
+      final int width) {
+    List<FormattedText> list = null;
+    float f = Float.MAX_VALUE;
+
+    for (final int offset : SPLIT_OFFSET_CANDIDATES) {
+      final List<FormattedText> list2 = strSplitter.splitLines(text, width - offset, Style.EMPTY);
+      final float g = Math.abs(getMaxWidth(strSplitter, list2) - (float) width);
+      if (g <= 10.0F) {
+        return list2;
+      }
+
+      if (g < f) {
+        f = g;
+        list = list2;
+      }
+    }
+
+    return list;
+  }
+
+  private static String currentLanguage(final Minecraft client) {
+    return Objects.requireNonNull(client.getLanguageManager().getSelected());
+  }
+
+  /**
+   * The key of a wrapped description in the cache.
+   */
+  private static final class DescriptionKey {
+    private final Component description;
+    private final int width;
+    private final String language;
+
+    private DescriptionKey(final Component description, final int width, final String language) {
+      this.description = description;
+      this.width = width;
+      this.language = language;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof DescriptionKey)) {
+        return false;
+      }
+      final DescriptionKey key = (DescriptionKey) other;
+      return this.width == key.width && this.language.equals(key.language)
+          && this.description.equals(key.description);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.description, this.width, this.language);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package codes.atomys.advr.utils;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import net.minecraft.Util;
+
+/**
+ * Collects the criteria which could not be translated, to help pack authors
+ * translate them.
+ *
+ * <p>
+ * Each missing key is recorded once, with the name displayed in its place, and
+ * a warning is logged the first time the key is missed in the session. The
+ * recorded keys also act as a negative cache: a criterion known to be missing
+ * is not looked up again until the translations are reloaded.
+ * </p>
+ *
+ * <p>
+ * The keys are written as a language file, ready to be filled in, when the
+ * advancement screen is closed or on demand, see {@link #write()}.
+ * </p>
+ */
+public final class MissingTranslations {
+  private static final Path REPORT_PATH = Paths.get("logs/advancements_reloaded_missing_translations.json");
+  private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+  // Missing keys and their displayed names, since the translations were loaded
+  private static final Map<String, String> MISSING = Maps.newHashMap();
+  // Keys already warned about, for the whole session
+  private static final Set<String> WARNED = Sets.newHashSet();
+  private static boolean dirty;
+
+  // Private constructor to prevent instantiation
+  private MissingTranslations() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Records that the given key has no translation.
+   *
+   * @param translationKey the missing translation key
+   * @param displayedName  the name displayed instead
+   */
+  public static void report(final String translationKey, final String displayedName) {
+    if (MISSING.putIfAbsent(translationKey, displayedName) != null) {
+      return;
+    }
+
+    dirty = true;
+    if (WARNED.add(translationKey)) {
+      Utils.LOGGER.warn("Unable to translate {} to a more meaningful name, adding as is. You can add your own "
+          + "translation for this criterion by adding the translation key: `{}`.", displayedName, translationKey);
+    }
+  }
+
+  /**
+   * Whether the given key was reported as missing since the translations were
+   * loaded.
+   *
+   * @param translationKey the translation key to check
+   * @return true if the key is known to be missing, false otherwise
+   */
+  public static boolean isMissing(final String translationKey) {
+    return MISSING.containsKey(translationKey);
+  }
+
+  /**
+   * Forgets the missing keys, as the reloaded translations may define them.
+   * The keys already warned about are not warned about again.
+   */
+  public static void clear() {
+    MISSING.clear();
+    dirty = false;
+  }
+
+  /**
+   * Writes the missing keys recorded since the last write, if any.
+   */
+  public static void writeIfChanged() {
+    if (dirty) {
+      write();
+    }
+  }
+
+  /**
+   * Writes every missing key to a language file in the logs directory, sorted
+   * by key. The file is written on the IO thread pool.
+   *
+   * @return the path of the written file
+   */
+  public static Path write() {
+    final Map<String, String> stub = new TreeMap<>(MISSING);
+    dirty = false;
+    Util.ioPool().execute(() -> {
+      try {
+        Files.createDirectories(REPORT_PATH.getParent());
+        try (Writer writer = Files.newBufferedWriter(REPORT_PATH, StandardCharsets.UTF_8)) {
+          GSON.toJson(stub, writer);
+        }
+      } catch (final IOException e) {
+        Utils.LOGGER.warn("Failed to write the missing translations to {}", REPORT_PATH, e);
+      }
+    });
+    return REPORT_PATH;
+  }
+}
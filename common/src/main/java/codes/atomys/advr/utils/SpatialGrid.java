@@ -0,0 +1,184 @@
+package codes.atomys.advr.utils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A uniform grid used to look up fixed-size square items by position.
+ *
+ * <p>
+ * Each item is stored once, in the cell containing its top-left corner. As the
+ * cell size is larger than the item size, an item can only cover the cell of
+ * its corner and the cells directly to the right and below it. A point lookup
+ * therefore only has to check at most four cells, whatever the number of items
+ * in the grid.
+ * </p>
+ *
+ * <p>
+ * Items keep the order in which they were added: when several items match a
+ * lookup, the one added first is returned, just like a linear scan over the
+ * items in insertion order would do.
+ * </p>
+ *
+ * @param <T> the type of the items stored in the grid
+ */
+public final class SpatialGrid<T> {
+  private final int cellSize;
+  private final int itemSize;
+  private final Map<Long, List<Entry<T>>> cells = Maps.newHashMap();
+  private int size;
+
+  /**
+   * Creates a new empty grid.
+   *
+   * @param cellSize the size of a cell, must be greater than the item size
+   * @param itemSize the size of the items stored in the grid
+   */
+  public SpatialGrid(final int cellSize, final int itemSize) {
+    if (cellSize <= itemSize) {
+      throw new IllegalArgumentException("Cell size must be greater than the item size");
+    }
+
+    this.cellSize = cellSize;
+    this.itemSize = itemSize;
+  }
+
+  /**
+   * Adds an item to the grid.
+   *
+   * @param value the item to add
+   * @param x     the x-coordinate of the top-left corner of the item
+   * @param y     the y-coordinate of the top-left corner of the item
+   */
+  public void add(final T value, final int x, final int y) {
+    final long key = this.key(Math.floorDiv(x, this.cellSize), Math.floorDiv(y, this.cellSize));
+    this.cells.computeIfAbsent(key, k -> Lists.newArrayList()).add(new Entry<>(value, x, y, this.size++));
+  }
+
+  /**
+   * Finds the first added item that may cover the given point and matches the
+   * given predicate.
+   * <p>
+   * Only the items whose bounds contain the point are given to the predicate,
+   * which is expected to do the exact hit test.
+   * </p>
+   *
+   * @param x         the x-coordinate of the point
+   * @param y         the y-coordinate of the point
+   * @param predicate the exact test an item must pass to be returned
+   * @return the first added matching item, or null if none matches
+   */
+  @Nullable
+  public T find(final double x, final double y, final Predicate<T> predicate) {
+    final int minCellX = Math.floorDiv((int) Math.floor(x) - this.itemSize, this.cellSize);
+    final int maxCellX = Math.floorDiv((int) Math.floor(x), this.cellSize);
+    final int minCellY = Math.floorDiv((int) Math.floor(y) - this.itemSize, this.cellSize);
+    final int maxCellY = Math.floorDiv((int) Math.floor(y), this.cellSize);
+
+    Entry<T> found = null;
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+        final List<Entry<T>> entries = this.cells.get(this.key(cellX, cellY));
+        if (entries == null) {
+          continue;
+        }
+
+        for (final Entry<T> entry : entries) {
+          if (found != null && entry.order > found.order) {
+            break;
+          }
+
+          if (entry.x <= x && x <= entry.x + this.itemSize && entry.y <= y && y <= entry.y + this.itemSize
+              && predicate.test(entry.value)) {
+            found = entry;
+            break;
+          }
+        }
+      }
+    }
+
+    return found == null ? null : found.value;
+  }
+
+  /**
+   * Calls the given consumer for every item overlapping the given rectangle.
+   * <p>
+   * The items are visited cell by cell, so the order is not the insertion
+   * order. The cost is proportional to the number of cells covered by the
+   * rectangle, not to the number of items in the grid.
+   * </p>
+   *
+   * @param minX     the minimal x-coordinate of the rectangle
+   * @param minY     the minimal y-coordinate of the rectangle
+   * @param maxX     the maximal x-coordinate of the rectangle
+   * @param maxY     the maximal y-coordinate of the rectangle
+   * @param consumer the consumer to call for each overlapping item
+   */
+  public void forEachIn(final int minX, final int minY, final int maxX, final int maxY, final Consumer<T> consumer) {
+    final int minCellX = Math.floorDiv(minX - this.itemSize, this.cellSize);
+    final int maxCellX = Math.floorDiv(maxX, this.cellSize);
+    final int minCellY = Math.floorDiv(minY - this.itemSize, this.cellSize);
+    final int maxCellY = Math.floorDiv(maxY, this.cellSize);
+
+    for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+      for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+        final List<Entry<T>> entries = this.cells.get(this.key(cellX, cellY));
+        if (entries == null) {
+          continue;
+        }
+
+        for (final Entry<T> entry : entries) {
+          if (entry.x + this.itemSize >= minX && entry.x <= maxX && entry.y + this.itemSize >= minY
+              && entry.y <= maxY) {
+            consumer.accept(entry.value);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of items in the grid.
+   *
+   * @return the number of items in the grid
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Removes every item from the grid.
+   */
+  public void clear() {
+    this.cells.clear();
+    this.size = 0;
+  }
+
+  private long key(final int cellX, final int cellY) {
+    return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+  }
+
+  /**
+   * An item stored in the grid along with its position and insertion order.
+   *
+   * @param <T> the type of the item
+   */
+  private static final class Entry<T> {
+    private final T value;
+    private final int x;
+    private final int y;
+    private final int order;
+
+    private Entry(final T value, final int x, final int y, final int order) {
+      this.value = value;
+      this.x = x;
+      this.y = y;
+      this.order = order;
+    }
+  }
+}
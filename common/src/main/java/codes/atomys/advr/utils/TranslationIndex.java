@@ -0,0 +1,126 @@
+package codes.atomys.advr.utils;
+
+import com.google.common.collect.Maps;
+import java.util.Map;
+import net.minecraft.client.resources.language.ClientLanguage;
+import net.minecraft.locale.Language;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of the loaded translation keys naming game objects, used to give a
+ * readable name to the criteria whose name is the id of a block, an item, an
+ * entity, etc.
+ *
+ * <p>
+ * The index maps each {@code namespace:path} to the translation key of the
+ * object with that id, such as {@code item.minecraft.diamond} for
+ * {@code minecraft:diamond}. When objects of several types share an id, the
+ * key of the first type of {@link #KEY_TYPES} wins. A criterion is therefore
+ * resolved with a hash lookup, instead of formatting one candidate key per
+ * type.
+ * </p>
+ *
+ * <p>
+ * The index is built again each time the translations are reloaded.
+ * </p>
+ */
+public final class TranslationIndex {
+  // The types of the translation keys, by decreasing priority
+  // CHECKSTYLE:OFF
+  private static final String[] KEY_TYPES = { "biome", "block", "color", "container", "effect", "enchantment",
+      "entity", "instrument", "item", "jukebox_song", "painting", "stat" };
+  // CHECKSTYLE:ON
+  // Paintings have their name in a sub-key
+  private static final String PAINTING_SUFFIX = ".title";
+
+  private static Map<String, String> keys = Map.of();
+
+  // Private constructor to prevent instantiation
+  private TranslationIndex() {
+    throw new UnsupportedOperationException("Utility class");
+  }
+
+  /**
+   * Indexes the keys of the given language.
+   * <p>
+   * Only a {@link ClientLanguage} exposes its keys, any other language leaves
+   * the index empty.
+   * </p>
+   *
+   * @param language the language which was loaded
+   */
+  public static void rebuild(final Language language) {
+    if (!(language instanceof ClientLanguage)) {
+      keys = Map.of();
+      return;
+    }
+
+    rebuild(((ClientLanguage) language).storage);
+  }
+
+  /**
+   * Indexes the given translations, replacing the keys indexed before.
+   *
+   * @param translations the translations of the loaded language, by key
+   */
+  static void rebuild(final Map<String, String> translations) {
+    final Map<String, Integer> priorities = Maps.newHashMap();
+    final Map<String, String> index = Maps.newHashMap();
+    for (final Map.Entry<String, String> entry : translations.entrySet()) {
+      final String key = entry.getKey();
+      // A key translated to itself is not translated
+      if (key.equals(entry.getValue())) {
+        continue;
+      }
+
+      final int typeEnd = key.indexOf('.');
+      final int namespaceEnd = typeEnd < 0 ? -1 : key.indexOf('.', typeEnd + 1);
+      if (namespaceEnd < 0) {
+        continue;
+      }
+
+      final int priority = priorityOf(key.substring(0, typeEnd));
+      if (priority < 0) {
+        continue;
+      }
+
+      String path = key.substring(namespaceEnd + 1);
+      if (KEY_TYPES[priority].equals("painting")) {
+        if (!path.endsWith(PAINTING_SUFFIX)) {
+          continue;
+        }
+        path = path.substring(0, path.length() - PAINTING_SUFFIX.length());
+      }
+
+      final String id = key.substring(typeEnd + 1, namespaceEnd) + ":" + path;
+      final Integer current = priorities.get(id);
+      if (current == null || priority < current) {
+        priorities.put(id, priority);
+        index.put(id, key);
+      }
+    }
+    keys = index;
+  }
+
+  /**
+   * Gets the translation key of the object with the given id.
+   *
+   * @param namespace the namespace of the id
+   * @param path      the path of the id
+   * @return the translation key of the object, or null if no object of a known
+   *         type has this id
+   */
+  @Nullable
+  public static String find(final String namespace, final String path) {
+    return keys.get(namespace + ":" + path);
+  }
+
+  private static int priorityOf(final String type) {
+    for (int priority = 0; priority < KEY_TYPES.length; priority++) {
+      if (KEY_TYPES[priority].equals(type)) {
+        return priority;
+      }
+    }
+    return -1;
+  }
+}
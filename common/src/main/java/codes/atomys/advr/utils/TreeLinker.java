@@ -0,0 +1,134 @@
+package codes.atomys.advr.utils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Links the nodes of a tree to their parent as they arrive, in any order.
+ *
+ * <p>
+ * A node whose parent is already known is attached to it right away. Otherwise
+ * the node waits in a pending list keyed by the key of its parent, and is
+ * adopted when that parent arrives. Each node is therefore linked in constant
+ * time, and building a tree is linear in its number of nodes.
+ * </p>
+ *
+ * <p>
+ * The children of a node are kept sorted by their key: each child is attached
+ * at its index among the children known so far. Once every node arrived, the
+ * links and the order of the children do not depend on the arrival order.
+ * </p>
+ *
+ * @param <K> the type of the keys of the nodes
+ * @param <V> the type of the nodes
+ */
+public final class TreeLinker<K, V> {
+  private final Function<K, V> lookup;
+  private final Comparator<K> order;
+  private final Attacher<V> attacher;
+  private final Map<K, List<K>> children = Maps.newHashMap();
+  private final Map<K, List<Pending<K, V>>> pendingChildren = Maps.newHashMap();
+  private int pendingCount;
+
+  /**
+   * Creates a new linker.
+   *
+   * @param lookup   finds a node already arrived by its key, or returns null
+   * @param order    the order of the children of a node
+   * @param attacher attaches a child to its parent
+   */
+  public TreeLinker(final Function<K, V> lookup, final Comparator<K> order, final Attacher<V> attacher) {
+    this.lookup = lookup;
+    this.order = order;
+    this.attacher = attacher;
+  }
+
+  /**
+   * Links the given node, which must be found by the lookup from now on, to
+   * its parent, and adopts the children waiting for it.
+   *
+   * @param key       the key of the node
+   * @param node      the node to link
+   * @param parentKey the key of the parent of the node, or null if the node is
+   *                  a root
+   */
+  public void link(final K key, final V node, @Nullable final K parentKey) {
+    if (parentKey != null) {
+      final V parent = this.lookup.apply(parentKey);
+      if (parent != null) {
+        this.attach(key, node, parentKey, parent);
+      } else {
+        this.pendingChildren.computeIfAbsent(parentKey, k -> Lists.newArrayList()).add(new Pending<>(key, node));
+        this.pendingCount++;
+      }
+    }
+
+    final List<Pending<K, V>> waiting = this.pendingChildren.remove(key);
+    if (waiting != null) {
+      this.pendingCount -= waiting.size();
+      for (final Pending<K, V> child : waiting) {
+        this.attach(child.key, child.node, key, node);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of nodes waiting for their parent.
+   *
+   * @return the number of pending nodes
+   */
+  public int pendingCount() {
+    return this.pendingCount;
+  }
+
+  // Attaches the child at its sorted index among the children of the parent
+  private void attach(final K key, final V node, final K parentKey, final V parent) {
+    final List<K> siblings = this.children.computeIfAbsent(parentKey, k -> Lists.newArrayList());
+    final int index = Collections.binarySearch(siblings, key, this.order);
+    if (index >= 0) {
+      return;
+    }
+
+    siblings.add(-index - 1, key);
+    this.attacher.attach(node, parent, -index - 1);
+  }
+
+  /**
+   * Attaches a child node to its parent.
+   *
+   * @param <V> the type of the nodes
+   */
+  @FunctionalInterface
+  public interface Attacher<V> {
+    /**
+     * Attaches the given child to the given parent.
+     *
+     * @param child  the child node
+     * @param parent the parent node
+     * @param index  the index of the child among the children of the parent
+     */
+    void attach(V child, V parent, int index);
+  }
+
+  /**
+   * A node waiting for its parent.
+   *
+   * @param <K> the type of the key of the node
+   * @param <V> the type of the node
+   */
+  private static final class Pending<K, V> {
+    private final K key;
+    private final V node;
+
+    private Pending(final K key, final V node) {
+      this.key = key;
+      this.node = node;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package codes.atomys.advr.screens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompletionTreeTest {
+  private static final int NODES = 2_000;
+
+  @Test
+  void countsTheSubtreesWhateverTheArrivalOrder() {
+    final Random random = new Random(42L);
+    final int[] parents = randomTree(random, NODES);
+    final boolean[] done = new boolean[NODES];
+    for (int i = 0; i < NODES; i++) {
+      done[i] = random.nextInt(3) == 0;
+    }
+
+    for (int shuffle = 0; shuffle < 8; shuffle++) {
+      final List<Integer> arrivals = Lists.newArrayListWithCapacity(NODES);
+      for (int i = 0; i < NODES; i++) {
+        arrivals.add(i);
+      }
+      Collections.shuffle(arrivals, random);
+
+      // Completes half of the advancements as they arrive, the others at the end
+      final CompletionTree<Integer> tree = new CompletionTree<>();
+      for (final int key : arrivals) {
+        tree.add(key, parents[key] < 0 ? null : parents[key]);
+        if (key % 2 == 0) {
+          tree.setDone(key, done[key]);
+        }
+      }
+      for (int i = 1; i < NODES; i += 2) {
+        tree.setDone(i, done[i]);
+      }
+
+      final int[] totals = new int[NODES];
+      final int[] completed = new int[NODES];
+      for (int i = NODES - 1; i >= 0; i--) {
+        totals[i]++;
+        completed[i] += done[i] ? 1 : 0;
+        if (parents[i] >= 0) {
+          totals[parents[i]] += totals[i];
+          completed[parents[i]] += completed[i];
+        }
+      }
+      for (int i = 0; i < NODES; i++) {
+        assertEquals(totals[i], tree.getTotal(i), "total of " + i);
+        assertEquals(completed[i], tree.getCompleted(i), "completed of " + i);
+      }
+    }
+  }
+
+  @Test
+  void adoptsTheCountsOfChildrenAddedBeforeTheirParent() {
+    final CompletionTree<String> tree = new CompletionTree<>();
+    tree.add("leaf", "branch");
+    tree.setDone("leaf", true);
+    tree.add("root", null);
+    assertEquals(1, tree.getTotal("root"));
+    assertEquals(0, tree.getCompleted("root"));
+
+    tree.add("branch", "root");
+    assertEquals(2, tree.getTotal("branch"));
+    assertEquals(1, tree.getCompleted("branch"));
+    assertEquals(3, tree.getTotal("root"));
+    assertEquals(1, tree.getCompleted("root"));
+
+    assertTrue(tree.setDone("leaf", false));
+    assertEquals(0, tree.getCompleted("root"));
+  }
+
+  @Test
+  void ignoresUnchangedCompletionAndUnknownAdvancements() {
+    final CompletionTree<String> tree = new CompletionTree<>();
+    tree.add("root", null);
+    tree.add("root", null);
+    assertEquals(1, tree.getTotal("root"));
+
+    assertTrue(tree.setDone("root", true));
+    assertFalse(tree.setDone("root", true));
+    assertFalse(tree.setDone("unknown", true));
+    assertEquals(1, tree.getCompleted("root"));
+    assertEquals(0, tree.getTotal("unknown"));
+  }
+
+  // Each node but the root gets a parent among the nodes before it
+  private static int[] randomTree(final Random random, final int size) {
+    final int[] parents = new int[size];
+    parents[0] = -1;
+    for (int i = 1; i < size; i++) {
+      parents[i] = random.nextInt(i);
+    }
+    return parents;
+  }
+}
@@ -0,0 +1,137 @@
+package codes.atomys.advr.screens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import codes.atomys.advr.ReloadedCriterionProgress;
+import codes.atomys.advr.config.ConfigSnapshot;
+import codes.atomys.advr.config.Configuration;
+import com.google.common.collect.Lists;
+import java.util.List;
+import net.minecraft.advancements.AdvancementProgress;
+import net.minecraft.advancements.AdvancementRequirements;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CriterionStepsTest {
+  // CHECKSTYLE:OFF
+  private static final String[] CRITERIA = { "zombie", "blaze", "creeper", "allay", "wither", "bee" };
+  // CHECKSTYLE:ON
+
+  private final boolean alphabeticOrder = Configuration.get().isCriteriasAlphabeticOrder();
+
+  @AfterEach
+  void restoreConfiguration() {
+    this.setAlphabeticOrder(this.alphabeticOrder);
+  }
+
+  @Test
+  void movesACompletedCriterionToTheObtainedSteps() {
+    this.setAlphabeticOrder(true);
+    final AdvancementProgress progress = progress();
+    final CriterionSteps steps = steps(progress);
+    assertEquals(List.of("allay", "bee", "blaze", "creeper", "wither", "zombie"), names(steps));
+
+    progress.grantProgress("creeper");
+    progress.grantProgress("allay");
+    steps.update(progress);
+    assertEquals(List.of("bee", "blaze", "wither", "zombie", "allay", "creeper"), names(steps));
+    assertTrue(steps.asList().get(5).isObtained());
+  }
+
+  @Test
+  void movesAnIncompleteCriterionBackToTheRemainingSteps() {
+    this.setAlphabeticOrder(true);
+    final AdvancementProgress progress = progress();
+    for (final String criterion : CRITERIA) {
+      progress.grantProgress(criterion);
+    }
+    final CriterionSteps steps = steps(progress);
+
+    progress.revokeProgress("wither");
+    progress.revokeProgress("bee");
+    steps.update(progress);
+    assertEquals(List.of("bee", "wither", "allay", "blaze", "creeper", "zombie"), names(steps));
+  }
+
+  @Test
+  void keepsTheStepsOfUnchangedCriteria() {
+    this.setAlphabeticOrder(true);
+    final AdvancementProgress progress = progress();
+    final CriterionSteps steps = steps(progress);
+    final ReloadedCriterionProgress zombie = steps.asList().get(5);
+
+    progress.grantProgress("allay");
+    steps.update(progress);
+    assertSame(zombie, steps.asList().get(4), "an unchanged criterion keeps its step");
+  }
+
+  @Test
+  void keepsTheReceivedOrderAcrossCompletions() {
+    this.setAlphabeticOrder(false);
+    final AdvancementProgress progress = progress();
+    final CriterionSteps steps = steps(progress);
+    final List<String> received = names(steps);
+
+    progress.grantProgress(received.get(3));
+    progress.grantProgress(received.get(1));
+    steps.update(progress);
+    assertEquals(List.of(received.get(0), received.get(2), received.get(4), received.get(5), received.get(1),
+        received.get(3)), names(steps));
+
+    progress.revokeProgress(received.get(3));
+    steps.update(progress);
+    assertEquals(List.of(received.get(0), received.get(2), received.get(3), received.get(4), received.get(5),
+        received.get(1)), names(steps));
+  }
+
+  @Test
+  void rebuildsTheStepsWhenTheOrderChanges() {
+    this.setAlphabeticOrder(false);
+    final AdvancementProgress progress = progress();
+    progress.grantProgress("zombie");
+    progress.grantProgress("bee");
+    final CriterionSteps steps = steps(progress);
+
+    this.setAlphabeticOrder(true);
+    steps.update(progress);
+    assertEquals(List.of("allay", "blaze", "creeper", "wither", "bee", "zombie"), names(steps));
+
+    progress.grantProgress("blaze");
+    steps.update(progress);
+    assertEquals(List.of("allay", "creeper", "wither", "bee", "blaze", "zombie"), names(steps));
+  }
+
+  private void setAlphabeticOrder(final boolean value) {
+    final ConfigSnapshot.Builder builder = Configuration.get().toBuilder().criteriasAlphabeticOrder(value);
+    Configuration.publish(builder);
+  }
+
+  private static AdvancementProgress progress() {
+    final List<List<String>> requirements = Lists.newArrayList();
+    for (final String criterion : CRITERIA) {
+      requirements.add(List.of(criterion));
+    }
+    final AdvancementProgress progress = new AdvancementProgress();
+    progress.update(new AdvancementRequirements(requirements));
+    return progress;
+  }
+
+  // The steps only use the advancement to name the criteria, which the tests
+  // do not need
+  private static CriterionSteps steps(final AdvancementProgress progress) {
+    final CriterionSteps steps = new CriterionSteps(null);
+    steps.update(progress);
+    return steps;
+  }
+
+  // The criteria are parsed as resource locations, in the default namespace
+  private static List<String> names(final CriterionSteps steps) {
+    final List<String> names = Lists.newArrayList();
+    for (final ReloadedCriterionProgress step : steps.asList()) {
+      names.add(step.getTitle().getString().substring("minecraft:".length()));
+    }
+    return names;
+  }
+}
@@ -0,0 +1,95 @@
+package codes.atomys.advr.screens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest {
+
+  @Test
+  void findsWordsWithATypo() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    index.add("diamonds", "Diamonds!", "Acquire diamonds", List.of("minecraft:diamond"));
+    index.add("ice", "Ice Bucket Challenge", "Obtain a block of Obsidian", List.of("obsidian"));
+
+    assertEquals(List.of("diamonds"), index.search("diamnods", 10));
+    assertEquals(List.of("ice"), index.search("obsidain", 10));
+    assertEquals(List.of("ice"), index.search("buckit chalenge", 10));
+  }
+
+  @Test
+  void ranksExactMatchesBeforeTypoMatches() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    // Added first, so the order of the results does not come from the index
+    index.add("stove", "Stove Age", "", List.of());
+    index.add("stone", "Stone Age", "", List.of());
+    index.add("stones", "Stones Everywhere", "", List.of());
+
+    assertEquals(List.of("stone", "stones", "stove"), index.search("stone", 10));
+    assertEquals(List.of("stove", "stone"), index.search("stove", 10));
+  }
+
+  @Test
+  void ranksTitleMatchesBeforeCriterionAndDescriptionMatches() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    index.add("description", "Adventure", "Become a monster hunter", List.of());
+    index.add("criterion", "Kill a Mob", "", List.of("Hunter of zombies"));
+    index.add("title", "Monster Hunter", "", List.of());
+
+    assertEquals(List.of("title", "criterion", "description"), index.search("hunter", 10));
+  }
+
+  @Test
+  void ranksExactMatchesBeforeTitlesSortedFirst() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    index.add("typo", "A Hardwear Store", "", List.of());
+    index.add("exact", "Hardware", "", List.of());
+
+    assertEquals(List.of("exact", "typo"), index.search("hardware", 10));
+  }
+
+  @Test
+  void requiresEveryWordOfTheQuery() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    index.add("stone", "Stone Age", "Mine stone with your new pickaxe", List.of());
+    index.add("iron", "Acquire Hardware", "Smelt an iron ingot", List.of());
+
+    assertEquals(List.of("stone"), index.search("stone pickaxe", 10));
+    assertEquals(List.of(), index.search("stone iron", 10));
+    assertEquals(List.of(), index.search("  ", 10));
+  }
+
+  @Test
+  void keepsTheBestResultsUpToTheLimit() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    for (int i = 0; i < 100; i++) {
+      index.add("criterion " + i, "Advancement " + i, "", List.of("gold " + i));
+    }
+    index.add("title", "Gold Rush", "", List.of());
+
+    final List<String> results = index.search("gold", 5);
+    assertEquals(5, results.size());
+    assertEquals("title", results.get(0));
+    assertEquals(List.of(), index.search("gold", 0));
+  }
+
+  @Test
+  void indexesEachValueOnce() {
+    final SearchIndex<String> index = new SearchIndex<>();
+    index.add("stone", "Stone Age", "", List.of());
+    index.add("stone", "Stone Age", "", List.of());
+    assertEquals(1, index.size());
+
+    index.clear();
+    assertEquals(0, index.size());
+    assertEquals(List.of(), index.search("stone", 10));
+  }
+
+  @Test
+  void splitsWordsAndTrigrams() {
+    assertEquals(List.of("stone", "age", "2"), SearchIndex.tokenize("Stone-Age (2)!"));
+    assertEquals(List.of(" st", "sto", "ton", "one", "ne "), SearchIndex.trigrams("stone"));
+    assertEquals(List.of(" a "), SearchIndex.trigrams("a"));
+  }
+}
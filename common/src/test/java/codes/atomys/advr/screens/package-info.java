@@ -0,0 +1,4 @@
+/**
+ * Tests of the screen-related classes for the Advancements Reloaded mod.
+ */
+package codes.atomys.advr.screens;
@@ -0,0 +1,164 @@
+package codes.atomys.advr.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SpatialGridTest {
+  // The sizes used by the tabs: widgets of 26 pixels in cells of 32 pixels
+  private static final int CELL_SIZE = 32;
+  private static final int ITEM_SIZE = 26;
+
+  @Test
+  void findsItemsAcrossCellBoundaries() {
+    final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+    // Starts in the first cell and covers the next one
+    final Item item = this.add(grid, 20, 20);
+
+    assertSame(item, this.find(grid, 21, 21));
+    assertSame(item, this.find(grid, CELL_SIZE, CELL_SIZE));
+    assertSame(item, this.find(grid, 45, 45));
+    assertNull(this.find(grid, 46, 46), "the far edge is outside of the item");
+    assertNull(this.find(grid, 20, 30), "the near edge is outside of the item");
+  }
+
+  @Test
+  void findsItemsAtNegativeCoordinates() {
+    final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+    final Item left = this.add(grid, -40, 10);
+    final Item above = this.add(grid, 10, -13);
+    final Item corner = this.add(grid, -26, -26);
+
+    assertSame(left, this.find(grid, -39.5, 20));
+    assertSame(left, this.find(grid, -14.5, 35.5));
+    assertSame(above, this.find(grid, 11, -0.5));
+    assertSame(above, this.find(grid, 35.5, 12.5));
+    assertSame(corner, this.find(grid, -0.5, -0.5));
+    assertSame(corner, this.find(grid, -25.5, -25.5));
+    assertNull(this.find(grid, 0, 0));
+  }
+
+  @Test
+  void returnsTheFirstAddedOfOverlappingItems() {
+    final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+    // The second item is in the next cell, the third one in the same cell
+    final Item first = this.add(grid, 20, 20);
+    final Item second = this.add(grid, 33, 33);
+    final Item third = this.add(grid, 10, 10);
+
+    assertSame(first, this.find(grid, 34, 34));
+    assertSame(first, this.find(grid, 21, 21));
+    assertSame(third, this.find(grid, 15, 15));
+    assertSame(second, this.find(grid, 50, 50));
+    assertSame(second, grid.find(34, 34, item -> item != first && this.isMouseOn(item, 34, 34)));
+  }
+
+  @Test
+  void findMatchesALinearScanOnRandomLayouts() {
+    final Random random = new Random(42L);
+    for (int layout = 0; layout < 20; layout++) {
+      final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+      final List<Item> items = this.randomLayout(random, grid, 400, 300);
+      for (int i = 0; i < 2_000; i++) {
+        final double x = random.nextDouble() * 700.0 - 350.0;
+        final double y = random.nextDouble() * 700.0 - 350.0;
+        final Item expected = this.scan(items, x, y);
+        assertSame(expected, grid.find(x, y, item -> this.isMouseOn(item, x, y)), "item at " + x + ", " + y);
+      }
+    }
+  }
+
+  @Test
+  void forEachInMatchesALinearScanOnRandomLayouts() {
+    final Random random = new Random(7L);
+    for (int layout = 0; layout < 20; layout++) {
+      final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+      final List<Item> items = this.randomLayout(random, grid, 400, 300);
+      for (int i = 0; i < 200; i++) {
+        final int minX = random.nextInt(700) - 350;
+        final int minY = random.nextInt(700) - 350;
+        final int maxX = minX + random.nextInt(200);
+        final int maxY = minY + random.nextInt(200);
+
+        final Set<Item> expected = Sets.newHashSet();
+        for (final Item item : items) {
+          if (item.x + ITEM_SIZE >= minX && item.x <= maxX && item.y + ITEM_SIZE >= minY && item.y <= maxY) {
+            expected.add(item);
+          }
+        }
+
+        final List<Item> visited = Lists.newArrayList();
+        grid.forEachIn(minX, minY, maxX, maxY, visited::add);
+        assertEquals(expected.size(), visited.size(), "each item is visited once");
+        assertEquals(expected, Sets.newHashSet(visited));
+      }
+    }
+  }
+
+  @Test
+  void forEachInIncludesItemsTouchingTheRectangle() {
+    final SpatialGrid<Item> grid = new SpatialGrid<>(CELL_SIZE, ITEM_SIZE);
+    final Item before = this.add(grid, -26, 0);
+    final Item after = this.add(grid, 64, 0);
+    this.add(grid, -27, 0);
+    this.add(grid, 65, 0);
+
+    final List<Item> visited = Lists.newArrayList();
+    grid.forEachIn(0, 0, 64, 10, visited::add);
+    assertEquals(Sets.newHashSet(before, after), Sets.newHashSet(visited));
+  }
+
+  private Item add(final SpatialGrid<Item> grid, final int x, final int y) {
+    final Item item = new Item(x, y);
+    grid.add(item, x, y);
+    return item;
+  }
+
+  // Adds items at random positions, many of them overlapping
+  private List<Item> randomLayout(final Random random, final SpatialGrid<Item> grid, final int count,
+      final int extent) {
+    final List<Item> items = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      final Item item = new Item(random.nextInt(2 * extent) - extent, random.nextInt(2 * extent) - extent);
+      grid.add(item, item.x, item.y);
+      items.add(item);
+    }
+    return items;
+  }
+
+  // The first added item under the point, as the tabs used to find it
+  private Item scan(final List<Item> items, final double x, final double y) {
+    for (final Item item : items) {
+      if (this.isMouseOn(item, x, y)) {
+        return item;
+      }
+    }
+    return null;
+  }
+
+  // The exact hit test of the widgets, strict on every edge
+  private boolean isMouseOn(final Item item, final double x, final double y) {
+    return item.x < x && x < item.x + ITEM_SIZE && item.y < y && y < item.y + ITEM_SIZE;
+  }
+
+  private Item find(final SpatialGrid<Item> grid, final double x, final double y) {
+    return grid.find(x, y, item -> this.isMouseOn(item, x, y));
+  }
+
+  private static final class Item {
+    private final int x;
+    private final int y;
+
+    private Item(final int x, final int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
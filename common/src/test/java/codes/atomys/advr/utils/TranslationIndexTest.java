@@ -0,0 +1,74 @@
+package codes.atomys.advr.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TranslationIndexTest {
+  @AfterEach
+  void clearIndex() {
+    TranslationIndex.rebuild(Map.of());
+  }
+
+  @Test
+  void findsTheKeyOfAnId() {
+    TranslationIndex.rebuild(Map.of(
+        "item.minecraft.diamond", "Diamond",
+        "entity.minecraft.zombie", "Zombie",
+        "biome.mymod.crystal_caves", "Crystal Caves"));
+
+    assertEquals("item.minecraft.diamond", TranslationIndex.find("minecraft", "diamond"));
+    assertEquals("entity.minecraft.zombie", TranslationIndex.find("minecraft", "zombie"));
+    assertEquals("biome.mymod.crystal_caves", TranslationIndex.find("mymod", "crystal_caves"));
+  }
+
+  @Test
+  void findsNothingForAMissingId() {
+    TranslationIndex.rebuild(Map.of(
+        "item.minecraft.diamond", "Diamond",
+        "advancements.story.mine_diamond.title", "Diamonds!",
+        "gui.done", "Done"));
+
+    assertNull(TranslationIndex.find("minecraft", "emerald"));
+    assertNull(TranslationIndex.find("mymod", "diamond"), "the namespace is part of the id");
+    assertNull(TranslationIndex.find("story", "mine_diamond.title"), "advancements are not game objects");
+    assertNull(TranslationIndex.find("minecraft", "done"));
+  }
+
+  @Test
+  void skipsTheKeysTranslatedToThemselves() {
+    TranslationIndex.rebuild(Map.of("item.minecraft.diamond", "item.minecraft.diamond"));
+
+    assertNull(TranslationIndex.find("minecraft", "diamond"));
+  }
+
+  @Test
+  void prefersTheTypesOfHigherPriority() {
+    TranslationIndex.rebuild(Map.of(
+        "item.minecraft.stone", "Stone",
+        "block.minecraft.stone", "Stone",
+        "painting.minecraft.kebab.title", "Kebab med tre pepperoni",
+        "painting.minecraft.kebab.author", "Kristoffer Zetterstrand"));
+
+    assertEquals("block.minecraft.stone", TranslationIndex.find("minecraft", "stone"));
+    assertEquals("painting.minecraft.kebab.title", TranslationIndex.find("minecraft", "kebab"));
+  }
+
+  @Test
+  void replacesTheKeysWhenTheLanguageChanges() {
+    TranslationIndex.rebuild(Map.of(
+        "item.minecraft.diamond", "Diamond",
+        "item.minecraft.emerald", "Emerald"));
+    // The next language only translates some of the keys
+    TranslationIndex.rebuild(Map.of(
+        "item.minecraft.emerald", "Emeraude",
+        "block.minecraft.dirt", "Terre"));
+
+    assertNull(TranslationIndex.find("minecraft", "diamond"));
+    assertEquals("item.minecraft.emerald", TranslationIndex.find("minecraft", "emerald"));
+    assertEquals("block.minecraft.dirt", TranslationIndex.find("minecraft", "dirt"));
+  }
+}
@@ -0,0 +1,136 @@
+package codes.atomys.advr.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TreeLinkerTest {
+  private static final int NODES = 12_000;
+  private static final int SHUFFLES = 8;
+
+  @Test
+  void linksTheSameTreeWhateverTheArrivalOrder() {
+    final int[] parents = randomTree(new Random(42L), NODES);
+    final Map<Integer, List<Integer>> expected = expectedChildren(parents);
+
+    final Random random = new Random(7L);
+    for (int shuffle = 0; shuffle < SHUFFLES; shuffle++) {
+      final List<Integer> arrivals = Lists.newArrayListWithCapacity(NODES);
+      for (int i = 0; i < NODES; i++) {
+        arrivals.add(i);
+      }
+      Collections.shuffle(arrivals, random);
+
+      final Map<Integer, Node> nodes = this.build(parents, arrivals);
+      assertNull(nodes.get(0).parent, "the root has no parent");
+      for (int i = 1; i < NODES; i++) {
+        assertEquals(parents[i], nodes.get(i).parent.key, "parent of node " + i);
+      }
+      for (int i = 0; i < NODES; i++) {
+        assertEquals(expected.getOrDefault(i, List.of()), keys(nodes.get(i).children), "children of node " + i);
+      }
+    }
+  }
+
+  @Test
+  void adoptsEveryChildArrivedBeforeItsParent() {
+    final int[] parents = randomTree(new Random(3L), NODES);
+    final List<Integer> arrivals = Lists.newArrayListWithCapacity(NODES);
+    for (int i = NODES - 1; i >= 0; i--) {
+      arrivals.add(i);
+    }
+
+    final Map<Integer, Node> nodes = this.build(parents, arrivals);
+    final Map<Integer, List<Integer>> expected = expectedChildren(parents);
+    for (int i = 0; i < NODES; i++) {
+      assertEquals(expected.getOrDefault(i, List.of()), keys(nodes.get(i).children), "children of node " + i);
+    }
+  }
+
+  @Test
+  void countsTheNodesWaitingForTheirParent() {
+    final Map<Integer, Node> nodes = Maps.newHashMap();
+    final TreeLinker<Integer, Node> linker = new TreeLinker<>(nodes::get, Comparator.<Integer>naturalOrder(),
+        TreeLinkerTest::attach);
+
+    this.arrive(linker, nodes, 2, 1);
+    this.arrive(linker, nodes, 3, 1);
+    assertEquals(2, linker.pendingCount());
+
+    this.arrive(linker, nodes, 1, 0);
+    assertEquals(1, linker.pendingCount());
+
+    this.arrive(linker, nodes, 0, -1);
+    assertEquals(0, linker.pendingCount());
+    assertEquals(List.of(2, 3), keys(nodes.get(1).children));
+  }
+
+  // Links the nodes in the given arrival order
+  private Map<Integer, Node> build(final int[] parents, final List<Integer> arrivals) {
+    final Map<Integer, Node> nodes = Maps.newHashMapWithExpectedSize(parents.length);
+    final TreeLinker<Integer, Node> linker = new TreeLinker<>(nodes::get, Comparator.<Integer>naturalOrder(),
+        TreeLinkerTest::attach);
+    for (final int key : arrivals) {
+      this.arrive(linker, nodes, key, parents[key]);
+    }
+    assertEquals(0, linker.pendingCount(), "every node found its parent");
+    return nodes;
+  }
+
+  private void arrive(final TreeLinker<Integer, Node> linker, final Map<Integer, Node> nodes, final int key,
+      final int parent) {
+    final Node node = new Node(key);
+    nodes.put(key, node);
+    linker.link(key, node, parent < 0 ? null : parent);
+  }
+
+  private static void attach(final Node child, final Node parent, final int index) {
+    child.parent = parent;
+    parent.children.add(index, child);
+  }
+
+  // Each node but the root gets a parent among the nodes before it
+  private static int[] randomTree(final Random random, final int size) {
+    final int[] parents = new int[size];
+    parents[0] = -1;
+    for (int i = 1; i < size; i++) {
+      parents[i] = random.nextInt(i);
+    }
+    return parents;
+  }
+
+  // The children of each node sorted by key, as the linker orders them
+  private static Map<Integer, List<Integer>> expectedChildren(final int[] parents) {
+    final Map<Integer, List<Integer>> children = Maps.newHashMap();
+    for (int i = 1; i < parents.length; i++) {
+      children.computeIfAbsent(parents[i], key -> Lists.newArrayList()).add(i);
+    }
+    return children;
+  }
+
+  private static List<Integer> keys(final List<Node> nodes) {
+    final List<Integer> keys = Lists.newArrayListWithCapacity(nodes.size());
+    for (final Node node : nodes) {
+      keys.add(node.key);
+    }
+    return keys;
+  }
+
+  private static final class Node {
+    private final int key;
+    private final List<Node> children = Lists.newArrayList();
+    private Node parent;
+
+    private Node(final int key) {
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,4 @@
+/**
+ * Tests of the utilities for AdvancementsReloaded.
+ */
+package codes.atomys.advr.utils;